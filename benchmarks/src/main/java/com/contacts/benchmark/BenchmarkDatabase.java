@@ -0,0 +1,143 @@
+package com.contacts.benchmark;
+
+import com.contacts.ContactsApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.h2.tools.Server;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 基准测试使用的数据库
+ * 按连接方式准备数据库，并以对应的配置启动应用：
+ * mem - 进程内内存H2（应用默认配置）；
+ * tcp - 通过本机TCP端口连接内存H2，每条语句都有一次网络往返；
+ * file - prod配置的文件H2，数据文件位于临时目录；
+ * postgres - postgres配置，连接从Maven依赖中解压运行的嵌入式PostgreSQL
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+    
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    
+    private final List<String> arguments = new ArrayList<>();
+    
+    private String memoryUrl;
+    
+    private Server server;
+    
+    private Path directory;
+    
+    private EmbeddedPostgres postgres;
+    
+    private BenchmarkDatabase() {
+    }
+    
+    /**
+     * 准备一个新的空数据库
+     * @param transport 连接方式：mem、tcp、file或postgres
+     * @return 数据库
+     * @throws IOException 如果无法创建数据目录或启动PostgreSQL
+     * @throws SQLException 如果无法启动H2 TCP服务器
+     */
+    public static BenchmarkDatabase start(String transport) throws IOException, SQLException {
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        String name = "bench" + COUNTER.incrementAndGet();
+        switch (transport) {
+            case "mem":
+                database.memoryUrl = "jdbc:h2:mem:" + name;
+                database.arguments.add("--spring.datasource.url=" + database.memoryUrl
+                    + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+                break;
+            case "tcp":
+                database.memoryUrl = "jdbc:h2:mem:" + name;
+                database.server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+                database.arguments.add("--spring.datasource.url=jdbc:h2:tcp://localhost:" + database.server.getPort()
+                    + "/mem:" + name + ";DB_CLOSE_DELAY=-1");
+                break;
+            case "file":
+                database.directory = Files.createTempDirectory("contacts-bench");
+                database.arguments.add("--spring.profiles.active=prod");
+                database.arguments.add("--contacts.data-dir=" + database.directory);
+                break;
+            case "postgres":
+                database.postgres = EmbeddedPostgres.builder().start();
+                database.arguments.add("--spring.profiles.active=postgres");
+                database.arguments.add("--spring.datasource.url=" + database.postgres.getJdbcUrl("postgres", "postgres"));
+                database.arguments.add("--spring.datasource.username=postgres");
+                database.arguments.add("--spring.datasource.password=");
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的连接方式: " + transport);
+        }
+        return database;
+    }
+    
+    /**
+     * 判断关闭应用后数据是否保留
+     * @return file和postgres返回true
+     */
+    public boolean isPersistent() {
+        return directory != null || postgres != null;
+    }
+    
+    /**
+     * 以不带Web服务器的方式启动连接本数据库的应用
+     * 参数以命令行参数传入，优先级高于应用的application.properties
+     * @param extraArguments 其他启动参数，如 --contacts.seed.count=10000
+     * @return 应用上下文
+     */
+    public ConfigurableApplicationContext startApplication(String... extraArguments) {
+        List<String> args = new ArrayList<>(arguments);
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--logging.level.root=WARN");
+        args.add("--logging.level.com.contacts=WARN");
+        args.addAll(Arrays.asList(extraArguments));
+        return new SpringApplicationBuilder(ContactsApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(args.toArray(new String[0]));
+    }
+    
+    /**
+     * 删除数据库，应用需已关闭
+     */
+    @Override
+    public void close() throws IOException, SQLException {
+        if (memoryUrl != null) {
+            // DB_CLOSE_DELAY=-1的内存数据库在最后一个连接关闭后仍然保留，需要显式关闭
+            try (Connection connection = DriverManager.getConnection(memoryUrl, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+        if (server != null) {
+            server.stop();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.contacts.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 接受JMH的全部命令行参数，在此基础上默认启用GC分析器（报告分配速率），
+ * 并默认输出JSON格式的结果文件，便于比较不同版本的运行结果
+ * 
+ * 示例：java -cp ... com.contacts.benchmark.BenchmarkRunner ContactQueryBenchmark -p contacts=10000
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+    
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+    
+    private BenchmarkRunner() {}
+    
+    /**
+     * 运行基准测试
+     * @param args JMH命令行参数
+     * @throws CommandLineOptionException 如果参数格式不正确
+     * @throws RunnerException 如果基准测试运行失败
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.contacts.benchmark;
+
+import com.contacts.dto.ContactSummary;
+import com.contacts.entity.Contact;
+import com.contacts.service.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 联系人查询基准测试
+ * 覆盖搜索和列表两条热点路径，同时报告吞吐量和延迟分位数
+ * 
+ * 搜索关键词分别走索引（姓名、拼音）和数据库回退（单字）两种路径
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ContactQueryBenchmark {
+    
+    @Param({"张伟", "zhangwei", "伟"})
+    public String keyword;
+    
+    private ContactService contactService;
+    
+    @Setup
+    public void setUp(SeededDatabase database) {
+        contactService = database.bean(ContactService.class);
+    }
+    
+    @Benchmark
+    public List<ContactSummary> searchContacts(SeededDatabase database) {
+        return contactService.searchContacts(keyword);
+    }
+    
+    /**
+     * 加载全部联系人实体（含联系方式），与关键词无关，只需运行一组关键词参数
+     * 例如：-p keyword=伟
+     */
+    @Benchmark
+    public List<Contact> getAllContacts(SeededDatabase database) {
+        return contactService.getAllContacts();
+    }
+    
+    @Benchmark
+    public List<ContactSummary> getFirstPage(SeededDatabase database) {
+        return contactService.getContactsPage(null, null).getItems();
+    }
+}
@@ -0,0 +1,156 @@
+package com.contacts.benchmark;
+
+import com.contacts.dto.ImportStats;
+import com.contacts.entity.Contact;
+import com.contacts.service.ExcelService;
+import com.contacts.util.ContactDataGenerator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel导入导出基准测试
+ * 导出写入丢弃输出流，只衡量查询和生成文件的开销，不修改数据，连续调用；
+ * 导入使用预先生成的固定文件，每次导入后删除新写入的联系人，保持数据量不变。
+ * 恢复数据只属于导入的状态（ImportFile），导出不会在每次调用后执行；
+ * 导入每次测量只调用一次（SingleShotTime），恢复数据在两次测量之间进行，不计入耗时
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ExcelBenchmark {
+    
+    private static final long IMPORT_SEED = 42L;
+    
+    private ExcelService excelService;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        excelService = database.bean(ExcelService.class);
+    }
+    
+    @Benchmark
+    public void exportToExcel(Blackhole blackhole) throws IOException {
+        excelService.exportToExcel(new BlackholeOutputStream(blackhole));
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public ImportStats importFromExcel(ImportFile file) throws IOException {
+        ImportStats stats = new ImportStats();
+        excelService.importFromExcel(file.file, stats);
+        return stats;
+    }
+    
+    /**
+     * 导入文件和导入后的数据恢复
+     */
+    @State(Scope.Benchmark)
+    public static class ImportFile {
+        
+        /**
+         * 导入文件的行数
+         */
+        @Param({"1000"})
+        public int importRows;
+        
+        private File file;
+        
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = writeImportFile(importRows);
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file.toPath());
+        }
+        
+        @TearDown(Level.Iteration)
+        public void resetDatabase(SeededDatabase database) {
+            database.resetToSeed();
+        }
+    }
+    
+    /**
+     * 按导入模板的列顺序生成导入文件
+     */
+    private static File writeImportFile(int rows) throws IOException {
+        File file = File.createTempFile("contacts-bench-import-", ".xlsx");
+        ContactDataGenerator generator = new ContactDataGenerator(IMPORT_SEED);
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(200);
+             OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("联系人");
+            String[] headers = {"姓名", "公司", "是否收藏", "电话", "邮箱", "地址", "微信", "QQ", "备注"};
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            for (int i = 1; i <= rows; i++) {
+                Contact contact = generator.generate(i);
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(contact.getName());
+                row.createCell(1).setCellValue(contact.getCompany());
+                row.createCell(2).setCellValue(Boolean.TRUE.equals(contact.getFavorite()) ? "是" : "否");
+                row.createCell(3).setCellValue(contact.getPrimaryPhone());
+                row.createCell(4).setCellValue(contact.getPrimaryEmail());
+                row.createCell(5).setCellValue(contact.getAddress());
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+        return file;
+    }
+    
+    /**
+     * 将写入的数据交给Blackhole的输出流，避免输出被优化掉
+     */
+    private static final class BlackholeOutputStream extends OutputStream {
+        
+        private final Blackhole blackhole;
+        
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+        
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.contacts.benchmark;
+
+import com.contacts.entity.Contact;
+import com.contacts.repository.ContactRepository;
+import com.contacts.service.ContactBatchWriter;
+import com.contacts.util.ContactDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 联系人写入基准测试
+ * 每次调用在一个事务中插入一批带联系方式的联系人，分别通过JPA级联保存和JDBC批量写入服务，
+ * 结果为每秒插入的联系人数；每次调用后删除新写入的联系人，保持数据量不变
+ *
+ * @author Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class InsertBenchmark {
+
+    /**
+     * 每批插入的联系人数量，与导入的默认批大小一致
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private static final long INSERT_SEED = 7L;
+
+    private ContactRepository contactRepository;
+
+    private ContactBatchWriter contactBatchWriter;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ContactDataGenerator generator = new ContactDataGenerator(INSERT_SEED);
+
+    private List<Contact> batch;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        contactRepository = database.bean(ContactRepository.class);
+        contactBatchWriter = database.bean(ContactBatchWriter.class);
+        transactionTemplate = database.bean(TransactionTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void generateBatch() {
+        batch = generator.generate(0, BATCH_SIZE);
+    }
+
+    @TearDown(Level.Invocation)
+    public void resetDatabase(SeededDatabase database) {
+        database.resetToSeed();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Contact> jpaSaveAll() {
+        return transactionTemplate.execute(status -> contactRepository.saveAll(batch));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchWriterInsertAll() {
+        return contactBatchWriter.insertAll(batch);
+    }
+}
@@ -0,0 +1,56 @@
+package com.contacts.benchmark;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact.getPrimaryPhone基准测试
+ * 纯内存测试，不需要数据库；电话排在所有其他联系方式之后，衡量最坏情况
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimaryPhoneBenchmark {
+    
+    /**
+     * 联系人的联系方式数量
+     */
+    @Param({"1", "5", "20"})
+    public int methods;
+    
+    private Contact contact;
+    
+    @Setup
+    public void setUp() {
+        contact = new Contact("基准测试");
+        for (int i = 1; i < methods; i++) {
+            contact.addContactMethod(new ContactMethod(ContactMethodType.EMAIL, "user" + i + "@example.com"));
+        }
+        contact.addContactMethod(new ContactMethod(ContactMethodType.PHONE, "13800138000"));
+    }
+    
+    @Benchmark
+    public String getPrimaryPhone() {
+        return contact.getPrimaryPhone();
+    }
+}
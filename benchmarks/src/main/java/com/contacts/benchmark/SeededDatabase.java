@@ -0,0 +1,104 @@
+package com.contacts.benchmark;
+
+import com.contacts.service.ContactIndexer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 已填充数据的应用上下文
+ * 每个试验（trial）启动一次不带Web服务器的应用，默认使用内存H2数据库，
+ * 由应用的批量填充功能（contacts.seed.*）在启动时生成指定数量的联系人，
+ * 搜索索引在启动完成时全量构建
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    
+    /**
+     * 填充数据使用的随机种子，保证每次运行的数据一致
+     */
+    private static final long SEED = 20240308L;
+    
+    /**
+     * 数据库中的联系人数量
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int contacts;
+    
+    /**
+     * 数据库连接方式：mem为进程内连接；tcp通过本机TCP端口连接H2服务器，
+     * 每条语句都有一次网络往返，用于衡量批处理等减少往返次数的优化；
+     * file为prod配置的文件H2；postgres为postgres配置连接嵌入式PostgreSQL。见BenchmarkDatabase
+     */
+    @Param({"mem"})
+    public String transport;
+    
+    private BenchmarkDatabase database;
+    
+    private ConfigurableApplicationContext context;
+    
+    /**
+     * 填充完成后的最大联系人ID，之后写入的数据可据此清理
+     */
+    private long maxSeededId;
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException, SQLException {
+        database = BenchmarkDatabase.start(transport);
+        context = database.startApplication(
+            "--contacts.seed.count=" + contacts,
+            "--contacts.seed.random-seed=" + SEED);
+        
+        maxSeededId = jdbc().queryForObject("SELECT MAX(id) FROM contacts", Long.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException, SQLException {
+        if (context != null) {
+            context.close();
+        }
+        if (database != null) {
+            database.close();
+        }
+    }
+    
+    /**
+     * 删除填充之后写入的联系人，恢复到填充完成时的数据量
+     */
+    public void resetToSeed() {
+        JdbcTemplate jdbc = jdbc();
+        List<Long> ids = jdbc.queryForList("SELECT id FROM contacts WHERE id > ?", Long.class, maxSeededId);
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbc.update("DELETE FROM contact_methods WHERE contact_id > ?", maxSeededId);
+        jdbc.update("DELETE FROM contacts WHERE id > ?", maxSeededId);
+        ContactIndexer indexer = bean(ContactIndexer.class);
+        ids.forEach(indexer::remove);
+    }
+    
+    /**
+     * 获取应用中的Bean
+     * @param type Bean类型
+     * @return Bean实例
+     */
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    private JdbcTemplate jdbc() {
+        return bean(JdbcTemplate.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.contacts.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 应用启动基准测试
+ * 测量应用从启动到就绪的耗时，包括Flyway迁移或校验、数据初始化和内存索引的全量构建
+ * 
+ * mem每次启动都是空库，需要重新生成全部联系人；file和postgres的数据在试验开始时生成一次，
+ * 之后每次启动直接打开已有数据。试验开始时的首次启动同时完成类加载等与数据库无关的预热，
+ * 测量的是重启应用的耗时
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class StartupBenchmark {
+    
+    /**
+     * 填充数据使用的随机种子，与SeededDatabase一致
+     */
+    private static final long SEED = 20240308L;
+    
+    /**
+     * 数据库中的联系人数量
+     */
+    @Param({"10000", "100000"})
+    public int contacts;
+    
+    /**
+     * 数据库连接方式，见BenchmarkDatabase
+     */
+    @Param({"mem", "file", "postgres"})
+    public String transport;
+    
+    private BenchmarkDatabase database;
+    
+    private ConfigurableApplicationContext context;
+    
+    @Setup(Level.Trial)
+    public void prepare() throws IOException, SQLException {
+        database = BenchmarkDatabase.start(transport);
+        database.startApplication(seedArguments()).close();
+        if (!database.isPersistent()) {
+            resetDatabase();
+        }
+    }
+    
+    @Benchmark
+    public ConfigurableApplicationContext startApplication() {
+        context = database.startApplication(seedArguments());
+        return context;
+    }
+    
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws IOException, SQLException {
+        context.close();
+        if (!database.isPersistent()) {
+            resetDatabase();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException, SQLException {
+        database.close();
+    }
+    
+    /**
+     * 换成新的空库，下次启动重新生成数据
+     */
+    private void resetDatabase() throws IOException, SQLException {
+        database.close();
+        database = BenchmarkDatabase.start(transport);
+    }
+    
+    private String[] seedArguments() {
+        return new String[] {"--contacts.seed.count=" + contacts, "--contacts.seed.random-seed=" + SEED};
+    }
+}
@@ -4,13 +4,16 @@ import com.contacts.entity.Contact;
 import com.contacts.entity.ContactMethod;
 import com.contacts.entity.ContactMethodType;
 import com.contacts.repository.ContactRepository;
+import com.contacts.service.ContactSeeder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 /**
  * 数据初始化器
- * 在应用启动时自动加载示例数据
+ * 在应用启动时自动加载示例数据；
+ * 配置了contacts.seed.count（或启用loadtest配置）时改为批量生成指定数量的测试数据
  * 
  * 项目：EE308FZ联系人
  * 团队成员：832301329黎研、832301114孙煦航
@@ -24,6 +27,15 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ContactRepository contactRepository;
     
+    @Autowired
+    private ContactSeeder contactSeeder;
+    
+    /**
+     * 批量生成的测试联系人数量，为0时只创建示例数据
+     */
+    @Value("${contacts.seed.count:0}")
+    private long seedCount;
+    
     @Override
     public void run(String... args) throws Exception {
         // 如果数据库中已有数据，则不再初始化
@@ -31,6 +43,12 @@ public class DataInitializer implements CommandLineRunner {
             return;
         }
         
+        if (seedCount > 0) {
+            // 批量生成测试数据，搜索索引在应用启动完成后统一构建
+            contactSeeder.seed(seedCount);
+            return;
+        }
+        
         // 创建示例联系人数据
         createSampleContacts();
     }
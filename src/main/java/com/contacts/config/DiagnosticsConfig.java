@@ -0,0 +1,211 @@
+package com.contacts.config;
+
+import com.contacts.dto.RequestDiagnostics;
+import com.contacts.service.RequestDiagnosticsRecorder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 请求诊断模式配置
+ * 设置contacts.diagnostics.enabled=true后启用，默认关闭，关闭时不产生任何额外开销
+ * 
+ * 启用后每个请求会记录：
+ * - SQL语句数和JDBC总耗时（代理数据源，包括JdbcTemplate批量写入）
+ * - 加载的实体数和flush次数（Hibernate事件监听器）
+ * - 请求线程分配的内存（ThreadMXBean）
+ * 
+ * 结果写入X-Request-Diagnostics响应头，最近的记录可通过管理端口的 /actuator/diagnostics 查询
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "contacts.diagnostics.enabled", havingValue = "true")
+public class DiagnosticsConfig {
+    
+    /**
+     * 诊断记录器
+     * @param bufferSize 保留的请求记录数
+     * @return 诊断记录器
+     */
+    @Bean
+    public RequestDiagnosticsRecorder requestDiagnosticsRecorder(
+            @Value("${contacts.diagnostics.buffer-size:200}") int bufferSize) {
+        return new RequestDiagnosticsRecorder(bufferSize);
+    }
+    
+    /**
+     * 诊断过滤器，排在字符编码过滤器之后、其他过滤器之前
+     * @param recorder 诊断记录器
+     * @return 过滤器注册信息
+     */
+    @Bean
+    public FilterRegistrationBean<DiagnosticsFilter> diagnosticsFilter(RequestDiagnosticsRecorder recorder) {
+        FilterRegistrationBean<DiagnosticsFilter> registration = new FilterRegistrationBean<>(new DiagnosticsFilter(recorder));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+    
+    /**
+     * 用代理包装数据源，统计每次JDBC执行
+     * 读写分离数据源等委托型数据源只转发给已包装的连接池，不再包装，避免重复统计
+     * @param recorder 诊断记录器（延迟获取）
+     * @return Bean后处理器
+     */
+    @Bean
+    public static BeanPostProcessor diagnosticsDataSourcePostProcessor(ObjectProvider<RequestDiagnosticsRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource) && !(bean instanceof DelegatingDataSource)) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(new StatementListener(recorder))
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * 注册Hibernate事件监听器，统计实体加载和flush
+     * @param recorder 诊断记录器
+     * @return Hibernate属性定制器
+     */
+    @Bean
+    public HibernatePropertiesCustomizer diagnosticsHibernateCustomizer(RequestDiagnosticsRecorder recorder) {
+        Integrator integrator = new DiagnosticsIntegrator(recorder);
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+            (IntegratorProvider) () -> Collections.singletonList(integrator));
+    }
+    
+    /**
+     * 诊断记录查询端点
+     * @param recorder 诊断记录器
+     * @return 端点
+     */
+    @Bean
+    public DiagnosticsEndpoint diagnosticsEndpoint(RequestDiagnosticsRecorder recorder) {
+        return new DiagnosticsEndpoint(recorder);
+    }
+    
+    /**
+     * 最近请求的诊断记录，GET /actuator/diagnostics?limit=50
+     */
+    @Endpoint(id = "diagnostics")
+    public static class DiagnosticsEndpoint {
+        
+        private static final int DEFAULT_LIMIT = 50;
+        
+        private final RequestDiagnosticsRecorder recorder;
+        
+        DiagnosticsEndpoint(RequestDiagnosticsRecorder recorder) {
+            this.recorder = recorder;
+        }
+        
+        @ReadOperation
+        public List<RequestDiagnostics> recent(@Nullable Integer limit) {
+            return recorder.recent(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+        }
+    }
+    
+    /**
+     * JDBC执行监听器，批处理只算一次执行
+     */
+    private static final class StatementListener implements QueryExecutionListener {
+        
+        private static final String START_KEY = "diagnosticsStart";
+        
+        private final ObjectProvider<RequestDiagnosticsRecorder> recorder;
+        
+        StatementListener(ObjectProvider<RequestDiagnosticsRecorder> recorder) {
+            this.recorder = recorder;
+        }
+        
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            execInfo.addCustomValue(START_KEY, System.nanoTime());
+        }
+        
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            RequestDiagnostics diagnostics = recorder.getObject().current();
+            Long start = execInfo.getCustomValue(START_KEY, Long.class);
+            if (diagnostics != null && start != null) {
+                diagnostics.addStatement(System.nanoTime() - start);
+            }
+        }
+    }
+    
+    /**
+     * 在Hibernate默认监听器之后追加计数监听器
+     */
+    private static final class DiagnosticsIntegrator implements Integrator {
+        
+        private final RequestDiagnosticsRecorder recorder;
+        
+        DiagnosticsIntegrator(RequestDiagnosticsRecorder recorder) {
+            this.recorder = recorder;
+        }
+        
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                              SessionFactoryServiceRegistry serviceRegistry) {
+            EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                RequestDiagnostics diagnostics = recorder.current();
+                if (diagnostics != null) {
+                    diagnostics.addEntityLoaded();
+                }
+            });
+            registry.appendListeners(EventType.FLUSH, (FlushEventListener) event -> {
+                RequestDiagnostics diagnostics = recorder.current();
+                if (diagnostics != null) {
+                    diagnostics.addFlush();
+                }
+            });
+            registry.appendListeners(EventType.AUTO_FLUSH, (AutoFlushEventListener) event -> {
+                RequestDiagnostics diagnostics = recorder.current();
+                if (diagnostics != null && event.isFlushRequired()) {
+                    diagnostics.addFlush();
+                }
+            });
+        }
+        
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
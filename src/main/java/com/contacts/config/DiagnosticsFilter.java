@@ -0,0 +1,195 @@
+package com.contacts.config;
+
+import com.contacts.dto.RequestDiagnostics;
+import com.contacts.service.RequestDiagnosticsRecorder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * 请求诊断过滤器
+ * 为每个请求记录诊断信息，在响应提交前写入X-Request-Diagnostics响应头，
+ * 请求结束后保存到环形缓冲区
+ * 
+ * 响应头的值是响应开始输出时的快照：页面渲染和流式输出期间的查询只计入环形缓冲区中的记录
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class DiagnosticsFilter extends OncePerRequestFilter {
+    
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    private final RequestDiagnosticsRecorder recorder;
+    
+    /**
+     * 构造函数
+     * @param recorder 诊断记录器
+     */
+    public DiagnosticsFilter(RequestDiagnosticsRecorder recorder) {
+        this.recorder = recorder;
+        if (THREADS.isThreadAllocatedMemorySupported()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDiagnostics diagnostics = recorder.begin(request.getMethod(), request.getRequestURI());
+        long threadId = Thread.currentThread().getId();
+        long allocatedStart = allocatedBytes(threadId);
+        long start = System.nanoTime();
+        
+        DiagnosticsResponse wrapped = new DiagnosticsResponse(response, () -> {
+            diagnostics.setAllocatedBytes(allocatedBytes(threadId) - allocatedStart);
+            diagnostics.setElapsedNanos(System.nanoTime() - start);
+            return diagnostics.toHeaderValue();
+        });
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            diagnostics.setStatus(response.getStatus());
+            wrapped.writeHeader();
+            diagnostics.setAllocatedBytes(allocatedBytes(threadId) - allocatedStart);
+            diagnostics.setElapsedNanos(System.nanoTime() - start);
+            recorder.end(diagnostics);
+        }
+    }
+    
+    private static long allocatedBytes(long threadId) {
+        return THREADS.isThreadAllocatedMemoryEnabled() ? THREADS.getThreadAllocatedBytes(threadId) : 0;
+    }
+    
+    /**
+     * 在响应第一次输出、重定向或出错前写入诊断响应头的响应包装类
+     */
+    private static final class DiagnosticsResponse extends HttpServletResponseWrapper {
+        
+        private final Supplier<String> headerValue;
+        private boolean headerWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        
+        DiagnosticsResponse(HttpServletResponse response, Supplier<String> headerValue) {
+            super(response);
+            this.headerValue = headerValue;
+        }
+        
+        /**
+         * 写入诊断响应头，响应已提交时忽略
+         */
+        synchronized void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                setHeader(RequestDiagnostics.HEADER, headerValue.get());
+            }
+            headerWritten = true;
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writeHeader();
+                        delegate.write(b);
+                    }
+                    
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writeHeader();
+                        delegate.write(b, off, len);
+                    }
+                    
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeader();
+                        delegate.flush();
+                    }
+                    
+                    @Override
+                    public void close() throws IOException {
+                        writeHeader();
+                        delegate.close();
+                    }
+                    
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+                    
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter delegate = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] buffer, int off, int len) {
+                        writeHeader();
+                        delegate.write(buffer, off, len);
+                    }
+                    
+                    @Override
+                    public void flush() {
+                        writeHeader();
+                        delegate.flush();
+                    }
+                    
+                    @Override
+                    public void close() {
+                        writeHeader();
+                        delegate.close();
+                    }
+                });
+            }
+            return writer;
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+        
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+        
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.contacts.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 流式导出配置
+ * StreamingResponseBody在Spring MVC的异步线程池中写出响应，
+ * 这里提供有界线程池，限制同时进行的流式导出数量
+ * 
+ * 异步请求的超时时间由spring.mvc.async.request-timeout配置
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Configuration
+public class ExportConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    @Qualifier("exportStreamExecutor")
+    private ThreadPoolTaskExecutor exportStreamExecutor;
+    
+    /**
+     * 流式导出线程池
+     * 线程数和等待队列长度均有上限，队列满时拒绝新的导出请求
+     * 
+     * @param poolSize 同时进行的导出数
+     * @param queueCapacity 排队等待的导出数
+     * @return 流式导出执行器
+     */
+    @Bean(name = "exportStreamExecutor")
+    public static ThreadPoolTaskExecutor exportStreamExecutor(@Value("${contacts.export.stream.pool-size:4}") int poolSize,
+                                                              @Value("${contacts.export.stream.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-stream-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportStreamExecutor);
+    }
+}
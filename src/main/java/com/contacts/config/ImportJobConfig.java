@@ -0,0 +1,37 @@
+package com.contacts.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 后台导入任务配置
+ * 提供有界线程池执行导入任务，避免导入占用Web请求线程
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Configuration
+public class ImportJobConfig {
+    
+    /**
+     * 导入任务线程池
+     * 线程数和等待队列长度均有上限，队列满时拒绝新任务
+     * 
+     * @param poolSize 同时执行的导入任务数
+     * @param queueCapacity 排队等待的导入任务数
+     * @return 导入任务执行器
+     */
+    @Bean(name = "importJobExecutor")
+    public ThreadPoolTaskExecutor importJobExecutor(@Value("${contacts.import.job.pool-size:2}") int poolSize,
+                                                    @Value("${contacts.import.job.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.contacts.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 监控指标配置
+ * 启用@Timed注解，为标注的服务方法记录耗时直方图
+ * 
+ * HTTP请求和Repository查询的耗时由Spring Boot自动记录，
+ * 指标通过Actuator的Prometheus端点导出
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig {
+    
+    /**
+     * 处理@Timed注解的切面
+     * @param registry 指标注册表
+     * @return TimedAspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
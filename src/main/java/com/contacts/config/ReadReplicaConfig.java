@@ -0,0 +1,94 @@
+package com.contacts.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 读写分离配置
+ * 设置contacts.datasource.replica.jdbc-url后启用，默认关闭，此时只有Spring Boot自动配置的单个数据源
+ * 
+ * 启用后有两个连接池：
+ * - primary：spring.datasource.*（连接池参数为spring.datasource.hikari.*），写事务、事务外的查询和Flyway迁移使用
+ * - replica：contacts.datasource.replica.*（直接绑定到HikariCP的属性），只读事务使用
+ * JPA、JdbcTemplate等使用的是两者之上的读写分离数据源，见ReadWriteRoutingDataSource
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "contacts.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+    
+    /**
+     * 主库连接池
+     * @param properties spring.datasource配置
+     * @return 主库数据源
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    /**
+     * 只读副本连接池
+     * @return 副本数据源
+     */
+    @Bean
+    @ConfigurationProperties("contacts.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    /**
+     * 副本状态监控
+     * @param replica 副本数据源
+     * @param lagQuery 返回复制延迟秒数的SQL，为空时只检查连接
+     * @param maxLag 允许的最大复制延迟，超过时只读事务回退到主库
+     * @param checkInterval 检查副本的间隔
+     * @return 副本状态监控
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${contacts.datasource.routing.lag-query:}") String lagQuery,
+                                               @Value("${contacts.datasource.routing.max-lag:5s}") Duration maxLag,
+                                               @Value("${contacts.datasource.routing.check-interval:1s}") Duration checkInterval) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, checkInterval);
+    }
+    
+    /**
+     * 应用使用的数据源
+     * @param primary 主库数据源
+     * @param replica 副本数据源
+     * @param monitor 副本状态监控
+     * @param readAfterWrite 写事务提交后同一调用方的只读事务继续使用主库的时长，0表示不限制
+     * @return 读写分离数据源
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor monitor,
+                                 @Value("${contacts.datasource.routing.read-after-write:1s}") Duration readAfterWrite) {
+        return new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(primary, replica, monitor, readAfterWrite));
+    }
+}
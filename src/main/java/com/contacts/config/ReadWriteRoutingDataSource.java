@@ -0,0 +1,160 @@
+package com.contacts.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+
+/**
+ * 读写分离数据源
+ * 只读事务（@Transactional(readOnly = true)）使用副本，其他连接（写事务、事务外的查询、迁移）使用主库；
+ * 副本不可用或复制延迟超限时（见ReplicaLagMonitor），只读事务也使用主库
+ * 
+ * 写后读：调用方的写事务提交后read-after-write时长内，该调用方的只读事务使用主库，能读到自己刚写入的数据；
+ * 其他调用方不受影响，仍使用副本。Web请求按会话区分（写入时创建会话，重定向后的页面也能读到），
+ * 请求之外（导入任务、定时任务等）按线程区分
+ * 
+ * 按获取连接时的事务状态选择数据源，而JPA事务在设置只读标志之前就会获取连接，
+ * 因此需要用LazyConnectionDataSourceProxy包装，推迟到执行第一条语句时再获取
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    
+    /**
+     * 会话中记录最近一次写事务提交时间（System.nanoTime）的属性名
+     */
+    private static final String LAST_WRITE_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".lastWrite";
+    
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor monitor;
+    private final long readAfterWriteNanos;
+    
+    /**
+     * 请求之外的调用方最近一次写事务提交的时间（System.nanoTime）
+     */
+    private final ThreadLocal<Long> threadLastWrite = new ThreadLocal<>();
+    
+    /**
+     * 创建读写分离数据源
+     * @param primary 主库数据源
+     * @param replica 副本数据源
+     * @param monitor 副本状态监控
+     * @param readAfterWrite 写事务提交后同一调用方的只读事务继续使用主库的时长，0表示不限制
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+                                      Duration readAfterWrite) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        this.readAfterWriteNanos = readAfterWrite.toNanos();
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+    
+    /**
+     * 按同样的规则选择数据源，用指定的用户名和密码获取连接
+     * 连接池不支持时抛出所选连接池的SQLFeatureNotSupportedException（HikariCP即是如此），不视为副本不可用
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+    
+    private Connection getConnection(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitor.isReplicaUsable()
+                && !withinReadAfterWrite()) {
+            try {
+                return source.getConnection(replica);
+            } catch (SQLFeatureNotSupportedException e) {
+                throw e;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        } else {
+            recordWriteOnCommit();
+        }
+        return source.getConnection(primary);
+    }
+    
+    /**
+     * 在读写事务中使用主库时，提交后记录一次写入
+     * 事务外的连接没有提交时机，不记录
+     */
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite();
+            }
+        });
+    }
+    
+    /**
+     * 判断当前调用方是否处在写后读窗口内
+     * @return 距该调用方最近一次写事务提交不足read-after-write时长时返回true
+     */
+    private boolean withinReadAfterWrite() {
+        if (readAfterWriteNanos <= 0) {
+            return false;
+        }
+        Long lastWrite;
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            lastWrite = (Long) request.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+        } else {
+            lastWrite = threadLastWrite.get();
+        }
+        return lastWrite != null && System.nanoTime() - lastWrite < readAfterWriteNanos;
+    }
+    
+    /**
+     * 记录当前调用方的一次写事务提交
+     */
+    private void recordWrite() {
+        if (readAfterWriteNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            threadLastWrite.set(now);
+            return;
+        }
+        try {
+            request.setAttribute(LAST_WRITE_ATTRIBUTE, now, RequestAttributes.SCOPE_SESSION);
+        } catch (IllegalStateException e) {
+            // 响应已提交，无法再创建会话，之后的请求按副本读取
+            log.debug("无法记录写后读会话属性: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 从选定的数据源获取连接
+     */
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection getConnection(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,154 @@
+package com.contacts.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 只读副本状态监控
+ * 决定只读事务此刻能否使用副本：副本无法连接，或最近一次检查测得的复制延迟超过上限（配置了延迟查询时）
+ * 时回退到主库。这是所有调用方共享的状态，写后读按调用方区分，见ReadWriteRoutingDataSource
+ * 
+ * 后台线程按固定间隔检查副本，不在请求线程上执行；作为MeterBinder导出副本是否可用和复制延迟指标
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    /**
+     * 未配置延迟查询时检查连接是否可用的超时时间（秒）
+     */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * 副本当前是否可用，检查失败或延迟超限时为false
+     */
+    private volatile boolean available = true;
+    
+    /**
+     * 最近一次测得的复制延迟（秒），未配置延迟查询或检查失败时为NaN
+     */
+    private volatile double lagSeconds = Double.NaN;
+    
+    /**
+     * 创建监控
+     * @param replica 副本数据源
+     * @param lagQuery 返回复制延迟秒数的SQL，为空时只检查连接
+     * @param maxLag 允许的最大复制延迟
+     * @param checkInterval 检查间隔
+     */
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.replica = replica;
+        this.lagQuery = lagQuery != null && !lagQuery.trim().isEmpty() ? lagQuery.trim() : null;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+    
+    /**
+     * 注册副本状态指标
+     * @param registry 指标注册表
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("contacts.datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+            .description("只读副本是否可用（1可用，0回退到主库）")
+            .register(registry);
+        Gauge.builder("contacts.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+            .description("最近一次测得的复制延迟")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+    
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * 判断只读事务此刻能否使用副本
+     * @return 副本可以连接且复制延迟未超限时返回true
+     */
+    public boolean isReplicaUsable() {
+        return available;
+    }
+    
+    /**
+     * 获取副本连接失败时调用，在下一次检查成功前回退到主库
+     * @param e 连接异常
+     */
+    public void markUnavailable(SQLException e) {
+        setAvailable(false, "无法连接: " + e.getMessage());
+    }
+    
+    /**
+     * 检查副本连接和复制延迟
+     */
+    void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null) {
+                boolean valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+                setAvailable(valid, valid ? null : "连接校验失败");
+                return;
+            }
+            double lag;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                lag = rs.next() ? rs.getDouble(1) : 0;
+            }
+            lagSeconds = lag;
+            boolean withinLimit = lag * 1000 <= maxLag.toMillis();
+            setAvailable(withinLimit, withinLimit ? null
+                : String.format("复制延迟%.1f秒，超过%.1f秒上限", lag, maxLag.toMillis() / 1000.0));
+        } catch (SQLException | RuntimeException e) {
+            lagSeconds = Double.NaN;
+            setAvailable(false, "检查失败: " + e.getMessage());
+        }
+    }
+    
+    private void setAvailable(boolean value, String reason) {
+        if (available == value) {
+            return;
+        }
+        available = value;
+        if (value) {
+            log.info("只读副本恢复可用，只读事务重新使用副本");
+        } else {
+            log.warn("只读副本不可用（{}），只读事务回退到主库", reason);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.contacts.controller;
+
+import com.contacts.dto.CacheStatistics;
+import com.contacts.service.ContactCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 缓存监控接口
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    
+    @Autowired
+    private ContactCache contactCache;
+    
+    /**
+     * 获取缓存统计信息
+     * 包括条目数、命中/未命中次数和命中率
+     * 
+     * @return 各缓存的统计信息
+     */
+    @GetMapping("/stats")
+    public List<CacheStatistics> getStatistics() {
+        return contactCache.getStatistics();
+    }
+}
@@ -0,0 +1,199 @@
+package com.contacts.controller;
+
+import com.contacts.dto.ContactBatchRequest;
+import com.contacts.dto.ContactBatchResult;
+import com.contacts.dto.ContactDetail;
+import com.contacts.dto.ContactPage;
+import com.contacts.dto.ContactSuggestion;
+import com.contacts.dto.ContactSummary;
+import com.contacts.entity.Contact;
+import com.contacts.service.ContactExportService;
+import com.contacts.service.ContactService;
+import com.contacts.service.ContactSuggestIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 联系人JSON接口
+ * 为前端异步请求和外部系统提供JSON格式的联系人数据
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/contacts")
+public class ContactApiController {
+    
+    @Autowired
+    private ContactService contactService;
+    
+    @Autowired
+    private ContactSuggestIndex contactSuggestIndex;
+    
+    @Autowired
+    private ContactExportService contactExportService;
+    
+    /**
+     * 分页获取联系人列表
+     * 排序为收藏优先、姓名升序，使用上一页返回的游标获取下一页
+     * 
+     * @param cursor 分页游标（可选，不传时返回第一页）
+     * @param size 每页数量（可选）
+     * @return 本页联系人摘要和下一页游标
+     */
+    @GetMapping
+    public ContactPage<ContactSummary> listContacts(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        return contactService.getContactsPage(cursor, size);
+    }
+    
+    /**
+     * 联系人自动补全
+     * 按前缀匹配姓名、公司（含拼音和首字母）和联系方式值，收藏的联系人优先
+     * 
+     * @param prefix 输入前缀
+     * @param limit 最多返回的建议数（可选，默认10）
+     * @return 建议列表
+     */
+    @GetMapping("/suggest")
+    public List<ContactSuggestion> suggest(@RequestParam String prefix,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        return contactSuggestIndex.suggest(prefix, Math.min(limit, ContactSuggestIndex.MAX_SUGGESTIONS));
+    }
+    
+    /**
+     * 流式导出所有联系人
+     * 列与Excel导出一致，数据从数据库游标直接写入响应，适合程序批量拉取
+     * 
+     * @param format 导出格式：csv（默认）或ndjson
+     * @return 流式响应
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+        ContactExportService.Format exportFormat = ContactExportService.Format.of(format);
+        StreamingResponseBody body = outputStream -> contactExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=contacts." + exportFormat.getExtension())
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .body(body);
+    }
+    
+    /**
+     * 获取联系人详情
+     * 响应头ETag为联系人的版本号，条件更新时通过If-Match带回
+     * 
+     * @param id 联系人ID
+     * @return 联系人详情，不存在时返回404
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ContactDetail> getContact(@PathVariable Long id) {
+        return contactService.getContactById(id)
+            .map(contact -> ResponseEntity.ok().eTag(eTag(contact)).body(ContactDetail.of(contact)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * 条件更新联系人
+     * 只修改请求中不为null的字段，methods为null时不修改联系方式；
+     * If-Match与当前版本不一致，或更新期间被其他请求修改时返回409，不覆盖他人的修改
+     * 
+     * @param id 联系人ID
+     * @param ifMatch 读取时得到的ETag（可选，不传或为*时不检查版本）
+     * @param data 要修改的字段
+     * @return 更新后的联系人详情和新的ETag，不存在时返回404
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ContactDetail> updateContact(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ContactBatchRequest.ContactData data) {
+        return contactService.updateContact(id, parseVersion(ifMatch), data)
+            .map(contact -> ResponseEntity.ok().eTag(eTag(contact)).body(ContactDetail.of(contact)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * 批量创建、更新、收藏和删除联系人
+     * 所有操作在一个事务中执行，单个操作校验失败不影响其他操作
+     * 
+     * @param request 批量操作请求
+     * @return 每个操作的结果
+     */
+    @PostMapping("/batch")
+    public ContactBatchResult batch(@RequestBody ContactBatchRequest request) {
+        return contactService.applyBatch(request);
+    }
+    
+    /**
+     * 批量收藏或取消收藏联系人
+     * 请求体为联系人ID数组，不存在或状态未变化的联系人忽略
+     * 
+     * @param favorite true为收藏，false为取消收藏
+     * @param ids 联系人ID列表
+     * @return 状态实际发生变化的联系人数量
+     */
+    @PostMapping("/favorite")
+    public Map<String, Integer> setFavorite(@RequestParam boolean favorite, @RequestBody List<Long> ids) {
+        return Collections.singletonMap("updated", contactService.setFavorite(ids, favorite));
+    }
+    
+    /**
+     * 联系人已被其他请求修改（版本号冲突）时返回409
+     * 
+     * @param e 乐观锁异常
+     * @return 错误信息
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(Collections.singletonMap("error", "联系人已被其他请求修改，请重新获取后再试"));
+    }
+    
+    /**
+     * 参数错误（如无效的分页游标、批量操作数超限、不支持的导出格式）时返回400
+     * 
+     * @param e 参数异常
+     * @return 错误信息
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+    }
+    
+    private String eTag(Contact contact) {
+        return "\"" + contact.getVersion() + "\"";
+    }
+    
+    /**
+     * 从If-Match请求头解析版本号，兼容弱ETag（W/前缀）
+     * @return 版本号，请求头为空或为*时返回null
+     * @throws IllegalArgumentException 如果请求头格式不正确
+     */
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().isEmpty() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的If-Match: " + ifMatch);
+        }
+    }
+}
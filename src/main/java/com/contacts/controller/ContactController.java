@@ -1,11 +1,18 @@
 package com.contacts.controller;
 
+import com.contacts.dto.ContactPage;
+import com.contacts.dto.ContactSummary;
+import com.contacts.dto.ImportJob;
 import com.contacts.entity.Contact;
 import com.contacts.entity.ContactMethod;
 import com.contacts.entity.ContactMethodType;
+import com.contacts.service.ContactDeduplicator;
 import com.contacts.service.ContactService;
 import com.contacts.service.ExcelService;
+import com.contacts.service.ImportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -41,27 +49,41 @@ public class ContactController {
     @Autowired
     private ExcelService excelService;
     
+    @Autowired
+    private ImportJobService importJobService;
+    
+    @Autowired
+    private ContactDeduplicator contactDeduplicator;
+    
     /**
      * 首页 - 联系人列表
-     * 支持搜索和筛选收藏联系人
+     * 支持搜索和筛选收藏联系人，全部联系人列表按游标分页
      * 
      * @param model 视图模型
      * @param keyword 搜索关键词（可选）
      * @param favoritesOnly 是否只显示收藏（可选）
+     * @param cursor 分页游标（可选）
+     * @param size 每页数量（可选）
      * @return 首页视图名称
      */
     @GetMapping("/")
     public String index(Model model, 
                         @RequestParam(required = false) String keyword,
-                        @RequestParam(required = false) Boolean favoritesOnly) {
-        List<Contact> contacts;
+                        @RequestParam(required = false) Boolean favoritesOnly,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size) {
+        List<ContactSummary> contacts;
         
         if (Boolean.TRUE.equals(favoritesOnly)) {
             contacts = contactService.getFavoriteContacts();
         } else if (keyword != null && !keyword.trim().isEmpty()) {
             contacts = contactService.searchContacts(keyword);
         } else {
-            contacts = contactService.getAllContacts();
+            ContactPage<ContactSummary> page = contactService.getContactsPage(cursor, size);
+            contacts = page.getItems();
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("cursor", cursor);
+            model.addAttribute("size", size);
         }
         
         model.addAttribute("contacts", contacts);
@@ -107,6 +129,7 @@ public class ContactController {
      * 保存联系人（新增或更新）
      * 
      * @param contact 联系人对象
+     * @param methodIds 联系方式ID列表，新添加的行为空
      * @param methodTypes 联系方式类型列表
      * @param methodValues 联系方式值列表
      * @param methodLabels 联系方式标签列表
@@ -115,6 +138,7 @@ public class ContactController {
      */
     @PostMapping("/contact/save")
     public String saveContact(@ModelAttribute Contact contact,
+                              @RequestParam(value = "methodIds", required = false) List<String> methodIds,
                               @RequestParam(value = "methodTypes", required = false) List<String> methodTypes,
                               @RequestParam(value = "methodValues", required = false) List<String> methodValues,
                               @RequestParam(value = "methodLabels", required = false) List<String> methodLabels,
@@ -127,29 +151,44 @@ public class ContactController {
                 if (value != null && !value.trim().isEmpty()) {
                     ContactMethodType type = ContactMethodType.valueOf(methodTypes.get(i));
                     String label = (methodLabels != null && i < methodLabels.size()) ? methodLabels.get(i) : null;
-                    methods.add(new ContactMethod(type, value.trim(), label));
+                    ContactMethod method = new ContactMethod(type, value.trim(), label);
+                    method.setId(parseMethodId(methodIds, i));
+                    methods.add(method);
                 }
             }
         }
         
         if (contact.getId() == null) {
-            Contact savedContact = contactService.createContact(contact);
-            contactService.saveContactWithMethods(savedContact, methods);
+            contactService.saveContactWithMethods(contact, methods);
             redirectAttributes.addFlashAttribute("message", "联系人 \"" + contact.getName() + "\" 创建成功！");
         } else {
-            Contact existingContact = contactService.getContactById(contact.getId())
-                .orElseThrow(() -> new RuntimeException("联系人不存在"));
-            existingContact.setName(contact.getName());
-            existingContact.setCompany(contact.getCompany());
-            existingContact.setNotes(contact.getNotes());
-            existingContact.setFavorite(contact.getFavorite());
-            contactService.saveContactWithMethods(existingContact, methods);
+            try {
+                contactService.updateContactWithMethods(contact.getId(), contact, methods);
+            } catch (OptimisticLockingFailureException e) {
+                redirectAttributes.addFlashAttribute("error",
+                    "联系人 \"" + contact.getName() + "\" 已被其他人修改，本次修改未保存，请重新编辑");
+                return "redirect:/";
+            }
             redirectAttributes.addFlashAttribute("message", "联系人 \"" + contact.getName() + "\" 更新成功！");
         }
         
         return "redirect:/";
     }
     
+    /**
+     * 读取表单中第i行联系方式的ID，缺失或格式不正确时返回null（按新联系方式处理）
+     */
+    private Long parseMethodId(List<String> methodIds, int i) {
+        if (methodIds == null || i >= methodIds.size()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(methodIds.get(i).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     /**
      * 切换联系人收藏状态
      * 
@@ -159,7 +198,7 @@ public class ContactController {
      */
     @PostMapping("/contact/favorite/{id}")
     public String toggleFavorite(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Contact contact = contactService.toggleFavorite(id);
+        ContactSummary contact = contactService.toggleFavorite(id);
         String message = contact.getFavorite() ? 
             "已将 \"" + contact.getName() + "\" 添加到收藏" : 
             "已将 \"" + contact.getName() + "\" 取消收藏";
@@ -185,20 +224,18 @@ public class ContactController {
     
     /**
      * 导出联系人到Excel文件
+     * 直接写入响应输出流，不在内存中缓存整个文件
      * 
-     * @return Excel文件响应
+     * @param response HTTP响应
      * @throws IOException 如果导出失败
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportExcel() throws IOException {
-        byte[] excelData = excelService.exportToExcel();
-        
+    public void exportExcel(HttpServletResponse response) throws IOException {
         String filename = URLEncoder.encode("通讯录.xlsx", StandardCharsets.UTF_8.toString());
         
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + filename)
-            .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-            .body(excelData);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + filename);
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        excelService.exportToExcel(response.getOutputStream());
     }
     
     /**
@@ -221,37 +258,50 @@ public class ContactController {
     
     /**
      * 导入页面
+     * 提交导入后带上任务ID返回本页面，页面轮询显示导入进度
      * 
+     * @param jobId 导入任务ID（可选）
+     * @param model 视图模型
      * @return 导入页面视图名称
      */
     @GetMapping("/import")
-    public String importPage() {
+    public String importPage(@RequestParam(required = false) String jobId, Model model) {
+        if (jobId != null) {
+            importJobService.getJob(jobId).ifPresent(job -> model.addAttribute("job", job));
+        }
+        model.addAttribute("duplicatePolicy", contactDeduplicator.getDefaultPolicy().name());
         return "import";
     }
     
     /**
-     * 处理Excel文件导入
+     * 处理Excel、CSV或vCard文件导入
+     * 文件保存后提交为后台导入任务，立即返回，不等待导入完成
      * 
-     * @param file 上传的Excel文件
+     * @param file 上传的Excel、CSV或vCard文件
+     * @param duplicates 重复行处理方式：none、skip或merge，不传时使用配置的默认方式
      * @param redirectAttributes 重定向属性
-     * @return 重定向到首页或导入页面
+     * @return 重定向到导入页面（带任务ID）
      */
     @PostMapping("/import")
-    public String importExcel(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
+    public String importExcel(@RequestParam("file") MultipartFile file,
+                              @RequestParam(required = false) String duplicates,
+                              RedirectAttributes redirectAttributes) {
         if (file.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "请选择要导入的文件");
             return "redirect:/import";
         }
         
         try {
-            List<Contact> imported = excelService.importFromExcel(file);
-            redirectAttributes.addFlashAttribute("message", "成功导入 " + imported.size() + " 个联系人！");
+            ContactDeduplicator.Policy policy = duplicates != null ? ContactDeduplicator.Policy.of(duplicates) : null;
+            ImportJob job = importJobService.submitImport(file, policy);
+            redirectAttributes.addAttribute("jobId", job.getId());
+        } catch (TaskRejectedException e) {
+            redirectAttributes.addFlashAttribute("error", "导入任务过多，请稍后再试");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "导入失败: " + e.getMessage());
-            return "redirect:/import";
         }
         
-        return "redirect:/";
+        return "redirect:/import";
     }
     
     /**
@@ -0,0 +1,88 @@
+package com.contacts.controller;
+
+import com.contacts.dto.ImportJob;
+import com.contacts.service.ContactDeduplicator;
+import com.contacts.service.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * 后台导入任务接口
+ * 提供异步导入提交、进度查询和取消功能，返回JSON数据
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/import/jobs")
+public class ImportJobController {
+    
+    @Autowired
+    private ImportJobService importJobService;
+    
+    /**
+     * 提交导入任务
+     * 文件保存后立即返回任务ID，不等待导入完成
+     * 
+     * @param file 上传的Excel、CSV或vCard文件
+     * @param duplicates 重复行处理方式：none、skip或merge，不传时使用配置的默认方式
+     * @return 导入任务信息，处理方式不支持时返回400，队列已满时返回503
+     * @throws IOException 如果上传文件无法保存
+     */
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestParam("file") MultipartFile file,
+                                    @RequestParam(required = false) String duplicates) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "请选择要导入的文件"));
+        }
+        
+        ContactDeduplicator.Policy policy;
+        try {
+            policy = duplicates != null ? ContactDeduplicator.Policy.of(duplicates) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+        
+        try {
+            ImportJob job = importJobService.submitImport(file, policy);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Collections.singletonMap("error", "导入任务过多，请稍后再试"));
+        }
+    }
+    
+    /**
+     * 查询导入任务进度
+     * 
+     * @param id 任务ID
+     * @return 导入任务信息，任务不存在时返回404
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJob> getJob(@PathVariable String id) {
+        return importJobService.getJob(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * 取消导入任务
+     * 
+     * @param id 任务ID
+     * @return 导入任务信息，任务不存在时返回404
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<ImportJob> cancelJob(@PathVariable String id) {
+        if (!importJobService.getJob(id).isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(importJobService.cancelJob(id));
+    }
+}
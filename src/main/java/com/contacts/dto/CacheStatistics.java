@@ -0,0 +1,67 @@
+package com.contacts.dto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 缓存统计信息
+ * 用于缓存统计接口返回命中率等指标
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class CacheStatistics {
+    
+    private final String name;
+    
+    /**
+     * 当前缓存条目数（估算值）
+     */
+    private final long size;
+    
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final double missRate;
+    
+    /**
+     * 因容量或过期被淘汰的条目数，不含主动失效
+     */
+    private final long evictionCount;
+    
+    /**
+     * 构造函数
+     * @param name 缓存名称
+     * @param size 当前条目数
+     * @param stats Caffeine统计快照
+     */
+    public CacheStatistics(String name, long size, CacheStats stats) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.hitRate = stats.hitRate();
+        this.missRate = stats.missRate();
+        this.evictionCount = stats.evictionCount();
+    }
+    
+    /**
+     * 从Caffeine缓存生成统计信息
+     * @param name 缓存名称
+     * @param cache 缓存对象，需开启recordStats
+     * @return 统计信息
+     */
+    public static CacheStatistics of(String name, Cache<?, ?> cache) {
+        return new CacheStatistics(name, cache.estimatedSize(), cache.stats());
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public String getName() { return name; }
+    public long getSize() { return size; }
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    public double getHitRate() { return hitRate; }
+    public double getMissRate() { return missRate; }
+    public long getEvictionCount() { return evictionCount; }
+}
@@ -0,0 +1,130 @@
+package com.contacts.dto;
+
+import com.contacts.entity.ContactMethodType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 联系人批量操作请求
+ * 一次请求可以包含任意组合的创建、更新、收藏和删除操作，
+ * 按创建、更新、收藏、删除的顺序在同一个事务中执行
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactBatchRequest {
+    
+    /**
+     * 要创建的联系人
+     */
+    private List<ContactData> create = new ArrayList<>();
+    
+    /**
+     * 要更新的联系人，只修改不为null的字段
+     */
+    private List<ContactData> update = new ArrayList<>();
+    
+    /**
+     * 要修改收藏状态的联系人
+     */
+    private List<FavoriteChange> favorite = new ArrayList<>();
+    
+    /**
+     * 要删除的联系人ID
+     */
+    private List<Long> delete = new ArrayList<>();
+    
+    /**
+     * 获取操作总数
+     * @return 各类操作数量之和
+     */
+    public int size() {
+        return create.size() + update.size() + favorite.size() + delete.size();
+    }
+    
+    // ==================== Getter 和 Setter 方法 ====================
+    
+    public List<ContactData> getCreate() { return create; }
+    public void setCreate(List<ContactData> create) { this.create = create != null ? create : new ArrayList<>(); }
+    
+    public List<ContactData> getUpdate() { return update; }
+    public void setUpdate(List<ContactData> update) { this.update = update != null ? update : new ArrayList<>(); }
+    
+    public List<FavoriteChange> getFavorite() { return favorite; }
+    public void setFavorite(List<FavoriteChange> favorite) { this.favorite = favorite != null ? favorite : new ArrayList<>(); }
+    
+    public List<Long> getDelete() { return delete; }
+    public void setDelete(List<Long> delete) { this.delete = delete != null ? delete : new ArrayList<>(); }
+    
+    /**
+     * 联系人数据
+     * 更新时methods为null表示不修改联系方式，为空列表表示清空联系方式
+     */
+    public static class ContactData {
+        
+        private Long id;
+        private String name;
+        private String company;
+        private String notes;
+        private Boolean favorite;
+        private List<MethodData> methods;
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        
+        public String getCompany() { return company; }
+        public void setCompany(String company) { this.company = company; }
+        
+        public String getNotes() { return notes; }
+        public void setNotes(String notes) { this.notes = notes; }
+        
+        public Boolean getFavorite() { return favorite; }
+        public void setFavorite(Boolean favorite) { this.favorite = favorite; }
+        
+        public List<MethodData> getMethods() { return methods; }
+        public void setMethods(List<MethodData> methods) { this.methods = methods; }
+    }
+    
+    /**
+     * 联系方式数据
+     * id只在单个联系人的条件更新中使用，用于原地修改已有联系方式
+     */
+    public static class MethodData {
+        
+        private Long id;
+        private ContactMethodType type;
+        private String value;
+        private String label;
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public ContactMethodType getType() { return type; }
+        public void setType(ContactMethodType type) { this.type = type; }
+        
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+        
+        public String getLabel() { return label; }
+        public void setLabel(String label) { this.label = label; }
+    }
+    
+    /**
+     * 收藏状态修改
+     */
+    public static class FavoriteChange {
+        
+        private Long id;
+        private boolean favorite;
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public boolean isFavorite() { return favorite; }
+        public void setFavorite(boolean favorite) { this.favorite = favorite; }
+    }
+}
@@ -0,0 +1,89 @@
+package com.contacts.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 联系人批量操作结果
+ * 每个操作对应一条结果，按操作类型和在请求数组中的下标定位
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactBatchResult {
+    
+    private static final List<String> OPERATION_ORDER = List.of("create", "update", "favorite", "delete");
+    
+    private final List<Item> items = new ArrayList<>();
+    
+    /**
+     * 记录成功的操作
+     * @param operation 操作类型：create、update、favorite、delete
+     * @param index 在请求数组中的下标
+     * @param id 联系人ID
+     */
+    public void succeeded(String operation, int index, Long id) {
+        items.add(new Item(operation, index, id, null));
+    }
+    
+    /**
+     * 记录失败的操作
+     * @param operation 操作类型：create、update、favorite、delete
+     * @param index 在请求数组中的下标
+     * @param id 联系人ID，可能为null
+     * @param error 失败原因
+     */
+    public void failed(String operation, int index, Long id, String error) {
+        items.add(new Item(operation, index, id, error));
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    /**
+     * 获取所有操作结果，按操作类型和下标排序
+     * @return 操作结果列表
+     */
+    public List<Item> getItems() {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt((Item item) -> OPERATION_ORDER.indexOf(item.getOperation()))
+            .thenComparingInt(Item::getIndex));
+        return Collections.unmodifiableList(sorted);
+    }
+    
+    public long getSucceeded() {
+        return items.stream().filter(Item::isSuccess).count();
+    }
+    
+    public long getFailed() {
+        return items.size() - getSucceeded();
+    }
+    
+    /**
+     * 单个操作的结果
+     */
+    public static class Item {
+        
+        private final String operation;
+        private final int index;
+        private final Long id;
+        private final String error;
+        
+        Item(String operation, int index, Long id, String error) {
+            this.operation = operation;
+            this.index = index;
+            this.id = id;
+            this.error = error;
+        }
+        
+        public String getOperation() { return operation; }
+        public int getIndex() { return index; }
+        public Long getId() { return id; }
+        public String getError() { return error; }
+        
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
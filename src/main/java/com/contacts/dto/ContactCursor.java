@@ -0,0 +1,67 @@
+package com.contacts.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 联系人列表分页游标
+ * 记录上一页最后一个联系人在排序（收藏降序、姓名升序、ID升序）中的位置，
+ * 下一页从该位置之后继续读取（键集分页）
+ * 
+ * 对外以URL安全的Base64字符串传递，格式为"收藏标记:ID:姓名"
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactCursor {
+    
+    private final boolean favorite;
+    private final String name;
+    private final Long id;
+    
+    /**
+     * 完整构造函数
+     * @param favorite 最后一个联系人是否收藏
+     * @param name 最后一个联系人姓名
+     * @param id 最后一个联系人ID
+     */
+    public ContactCursor(boolean favorite, String name, Long id) {
+        this.favorite = favorite;
+        this.name = name;
+        this.id = id;
+    }
+    
+    /**
+     * 编码为字符串
+     * @return URL安全的游标字符串
+     */
+    public String encode() {
+        String raw = (favorite ? "1" : "0") + ":" + id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析游标字符串
+     * @param cursor 游标字符串
+     * @return 分页游标
+     * @throws IllegalArgumentException 如果游标格式不正确
+     */
+    public static ContactCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new ContactCursor("1".equals(parts[0]), parts[2], Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public boolean isFavorite() { return favorite; }
+    public String getName() { return name; }
+    public Long getId() { return id; }
+}
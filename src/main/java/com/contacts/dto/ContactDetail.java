@@ -0,0 +1,90 @@
+package com.contacts.dto;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 联系人详情
+ * 单个联系人JSON接口的响应，包含全部字段、联系方式和版本号
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactDetail {
+    
+    /**
+     * 联系方式
+     */
+    public static class Method {
+        
+        private final Long id;
+        private final ContactMethodType type;
+        private final String value;
+        private final String label;
+        
+        public Method(Long id, ContactMethodType type, String value, String label) {
+            this.id = id;
+            this.type = type;
+            this.value = value;
+            this.label = label;
+        }
+        
+        public Long getId() { return id; }
+        public ContactMethodType getType() { return type; }
+        public String getValue() { return value; }
+        public String getLabel() { return label; }
+    }
+    
+    private final Long id;
+    private final String name;
+    private final String company;
+    private final String notes;
+    private final Boolean favorite;
+    private final Long version;
+    private final LocalDateTime createdTime;
+    private final LocalDateTime updatedTime;
+    private final List<Method> methods;
+    
+    private ContactDetail(Contact contact, List<Method> methods) {
+        this.id = contact.getId();
+        this.name = contact.getName();
+        this.company = contact.getCompany();
+        this.notes = contact.getNotes();
+        this.favorite = contact.getFavorite();
+        this.version = contact.getVersion();
+        this.createdTime = contact.getCreatedTime();
+        this.updatedTime = contact.getUpdatedTime();
+        this.methods = Collections.unmodifiableList(methods);
+    }
+    
+    /**
+     * 根据联系人实体创建详情
+     * @param contact 联系人对象，联系方式必须已加载
+     * @return 联系人详情
+     */
+    public static ContactDetail of(Contact contact) {
+        List<Method> methods = new ArrayList<>();
+        for (ContactMethod method : contact.getContactMethods()) {
+            methods.add(new Method(method.getId(), method.getType(), method.getMethodValue(), method.getLabel()));
+        }
+        return new ContactDetail(contact, methods);
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getCompany() { return company; }
+    public String getNotes() { return notes; }
+    public Boolean getFavorite() { return favorite; }
+    public Long getVersion() { return version; }
+    public LocalDateTime getCreatedTime() { return createdTime; }
+    public LocalDateTime getUpdatedTime() { return updatedTime; }
+    public List<Method> getMethods() { return methods; }
+}
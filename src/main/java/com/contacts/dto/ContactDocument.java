@@ -0,0 +1,83 @@
+package com.contacts.dto;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 联系人索引文档
+ * 联系人实体在某一时刻的不可变快照，供内存索引使用，
+ * 避免索引持有受JPA管理的实体
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactDocument {
+    
+    /**
+     * 联系方式快照
+     */
+    public static class MethodValue {
+        
+        private final ContactMethodType type;
+        private final String value;
+        
+        public MethodValue(ContactMethodType type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+        
+        public ContactMethodType getType() { return type; }
+        public String getValue() { return value; }
+    }
+    
+    private final Long id;
+    private final String name;
+    private final String company;
+    private final boolean favorite;
+    private final List<MethodValue> methods;
+    
+    /**
+     * 完整构造函数
+     * @param id 联系人ID
+     * @param name 姓名
+     * @param company 公司
+     * @param favorite 是否收藏
+     * @param methods 联系方式列表
+     */
+    public ContactDocument(Long id, String name, String company, boolean favorite, List<MethodValue> methods) {
+        this.id = id;
+        this.name = name;
+        this.company = company;
+        this.favorite = favorite;
+        this.methods = Collections.unmodifiableList(methods);
+    }
+    
+    /**
+     * 根据联系人实体创建快照
+     * @param contact 联系人对象，必须已有ID
+     * @return 索引文档
+     */
+    public static ContactDocument of(Contact contact) {
+        List<MethodValue> methods = new ArrayList<>();
+        for (ContactMethod method : contact.getContactMethods()) {
+            if (method.getMethodValue() != null) {
+                methods.add(new MethodValue(method.getType(), method.getMethodValue()));
+            }
+        }
+        return new ContactDocument(contact.getId(), contact.getName(), contact.getCompany(),
+            Boolean.TRUE.equals(contact.getFavorite()), methods);
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getCompany() { return company; }
+    public boolean isFavorite() { return favorite; }
+    public List<MethodValue> getMethods() { return methods; }
+}
@@ -0,0 +1,57 @@
+package com.contacts.dto;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个联系人的联系方式变化
+ * 由提交的联系方式与已有联系方式逐条匹配得到（见ContactService.saveContactWithMethods），
+ * JPA保存和JDBC批量写入使用同一份结果，只写入发生变化的行
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactMethodChanges {
+    
+    private final Contact contact;
+    
+    /**
+     * 新增的联系方式，没有ID
+     */
+    private final List<ContactMethod> added = new ArrayList<>();
+    
+    /**
+     * 字段被修改的已有联系方式，已写入新值
+     */
+    private final List<ContactMethod> updated = new ArrayList<>();
+    
+    /**
+     * 要删除的已有联系方式
+     */
+    private final List<ContactMethod> removed = new ArrayList<>();
+    
+    public ContactMethodChanges(Contact contact) {
+        this.contact = contact;
+    }
+    
+    /**
+     * 是否没有任何变化
+     * @return 没有新增、修改和删除时返回true
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public Contact getContact() { return contact; }
+    
+    public List<ContactMethod> getAdded() { return added; }
+    
+    public List<ContactMethod> getUpdated() { return updated; }
+    
+    public List<ContactMethod> getRemoved() { return removed; }
+}
@@ -0,0 +1,46 @@
+package com.contacts.dto;
+
+import java.util.List;
+
+/**
+ * 联系人分页结果
+ * 
+ * @param <T> 列表元素类型
+ * @author Team
+ * @version 1.0
+ */
+public class ContactPage<T> {
+    
+    /**
+     * 本页数据
+     */
+    private final List<T> items;
+    
+    /**
+     * 下一页游标，没有下一页时为null
+     */
+    private final String nextCursor;
+    
+    /**
+     * 完整构造函数
+     * @param items 本页数据
+     * @param nextCursor 下一页游标
+     */
+    public ContactPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    
+    /**
+     * 判断是否还有下一页
+     * @return 有下一页时返回true
+     */
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.contacts.dto;
+
+import java.util.Objects;
+
+/**
+ * 自动补全建议项
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactSuggestion {
+    
+    /**
+     * 所属联系人ID
+     */
+    private final Long contactId;
+    
+    /**
+     * 显示文本，如姓名、公司名或联系方式值
+     */
+    private final String text;
+    
+    /**
+     * 建议来源字段：NAME、COMPANY 或联系方式类型名称
+     */
+    private final String field;
+    
+    /**
+     * 所属联系人是否已收藏
+     */
+    private final boolean favorite;
+    
+    /**
+     * 完整构造函数
+     * @param contactId 联系人ID
+     * @param text 显示文本
+     * @param field 来源字段
+     * @param favorite 是否收藏
+     */
+    public ContactSuggestion(Long contactId, String text, String field, boolean favorite) {
+        this.contactId = contactId;
+        this.text = text;
+        this.field = field;
+        this.favorite = favorite;
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public Long getContactId() { return contactId; }
+    public String getText() { return text; }
+    public String getField() { return field; }
+    public boolean isFavorite() { return favorite; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ContactSuggestion)) return false;
+        ContactSuggestion that = (ContactSuggestion) o;
+        return Objects.equals(contactId, that.contactId)
+            && Objects.equals(text, that.text)
+            && Objects.equals(field, that.field);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(contactId, text, field);
+    }
+}
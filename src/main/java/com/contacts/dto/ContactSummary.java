@@ -0,0 +1,58 @@
+package com.contacts.dto;
+
+import com.contacts.entity.Contact;
+
+/**
+ * 联系人摘要
+ * 列表和搜索视图只需要的字段，不含备注、时间戳和全部联系方式
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ContactSummary {
+    
+    private final Long id;
+    private final String name;
+    private final String company;
+    private final Boolean favorite;
+    private final String primaryPhone;
+    private final String primaryEmail;
+    
+    /**
+     * 完整构造函数
+     * @param id 联系人ID
+     * @param name 姓名
+     * @param company 公司
+     * @param favorite 是否收藏
+     * @param primaryPhone 主要电话
+     * @param primaryEmail 主要邮箱
+     */
+    public ContactSummary(Long id, String name, String company, Boolean favorite,
+                          String primaryPhone, String primaryEmail) {
+        this.id = id;
+        this.name = name;
+        this.company = company;
+        this.favorite = favorite;
+        this.primaryPhone = primaryPhone != null ? primaryPhone : "";
+        this.primaryEmail = primaryEmail != null ? primaryEmail : "";
+    }
+    
+    /**
+     * 根据联系人实体创建摘要
+     * @param contact 联系人对象
+     * @return 联系人摘要
+     */
+    public static ContactSummary of(Contact contact) {
+        return new ContactSummary(contact.getId(), contact.getName(), contact.getCompany(), contact.getFavorite(),
+            contact.getPrimaryPhone(), contact.getPrimaryEmail());
+    }
+    
+    // ==================== Getter 方法 ====================
+    
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getCompany() { return company; }
+    public Boolean getFavorite() { return favorite; }
+    public String getPrimaryPhone() { return primaryPhone; }
+    public String getPrimaryEmail() { return primaryEmail; }
+}
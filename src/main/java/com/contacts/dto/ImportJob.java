@@ -0,0 +1,133 @@
+package com.contacts.dto;
+
+import com.contacts.service.ContactDeduplicator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 后台导入任务
+ * 记录一次异步导入的状态和进度，供进度查询接口返回
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ImportJob {
+    
+    /**
+     * 导入任务状态
+     */
+    public enum Status {
+        /** 排队等待执行 */
+        PENDING,
+        /** 正在导入 */
+        RUNNING,
+        /** 导入完成 */
+        COMPLETED,
+        /** 导入失败 */
+        FAILED,
+        /** 已取消 */
+        CANCELLED
+    }
+    
+    /**
+     * 任务唯一标识
+     */
+    private final String id;
+    
+    /**
+     * 上传的原始文件名
+     */
+    private final String filename;
+    
+    /**
+     * 重复行处理方式
+     */
+    private final ContactDeduplicator.Policy duplicatePolicy;
+    
+    /**
+     * 导入统计信息
+     */
+    private final ImportStats stats = new ImportStats();
+    
+    /**
+     * 任务提交时间
+     */
+    private final LocalDateTime createdTime = LocalDateTime.now();
+    
+    /**
+     * 任务状态，排队中的任务可能同时被工作线程启动和被用户取消，通过compareAndSetStatus保证只有一方成功
+     */
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
+    
+    /**
+     * 失败原因
+     */
+    private volatile String errorMessage;
+    
+    /**
+     * 是否已请求取消
+     */
+    private volatile boolean cancelRequested;
+    
+    /**
+     * 构造函数
+     * @param id 任务ID
+     * @param filename 原始文件名
+     * @param duplicatePolicy 重复行处理方式
+     */
+    public ImportJob(String id, String filename, ContactDeduplicator.Policy duplicatePolicy) {
+        this.id = id;
+        this.filename = filename;
+        this.duplicatePolicy = duplicatePolicy;
+    }
+    
+    // ==================== Getter 和 Setter 方法 ====================
+    
+    public String getId() { return id; }
+    public String getFilename() { return filename; }
+    public ContactDeduplicator.Policy getDuplicatePolicy() { return duplicatePolicy; }
+    public LocalDateTime getCreatedTime() { return createdTime; }
+    
+    public Status getStatus() { return status.get(); }
+    public void setStatus(Status status) { this.status.set(status); }
+    
+    /**
+     * 仅当任务处于预期状态时切换状态
+     * @param expected 预期的当前状态
+     * @param newStatus 新状态
+     * @return 切换成功返回true
+     */
+    public boolean compareAndSetStatus(Status expected, Status newStatus) {
+        return status.compareAndSet(expected, newStatus);
+    }
+    
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+    
+    @JsonIgnore
+    public ImportStats getStats() { return stats; }
+    
+    // ==================== 进度信息 ====================
+    
+    public long getRowsParsed() { return stats.getRowsParsed(); }
+    public long getRowsSaved() { return stats.getRowsSaved(); }
+    public long getRowsMatched() { return stats.getRowsMatched(); }
+    public long getRowsMerged() { return stats.getRowsMerged(); }
+    public long getRowsFailed() { return stats.getRowsFailed(); }
+    public long getElapsedMillis() { return stats.getElapsedMillis(); }
+    public double getRowsPerSecond() { return stats.getRowsPerSecond(); }
+    
+    /**
+     * 判断任务是否已结束
+     * @return 已完成、失败或已取消时返回true
+     */
+    public boolean isFinished() {
+        Status current = status.get();
+        return current == Status.COMPLETED || current == Status.FAILED || current == Status.CANCELLED;
+    }
+}
@@ -0,0 +1,101 @@
+package com.contacts.dto;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入统计信息
+ * 记录导入过程中已解析、已保存、重复、失败的行数，并计算导入速度
+ * 计数器为线程安全的，可在导入进行中被其他线程读取
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class ImportStats {
+    
+    /**
+     * 已解析的数据行数
+     */
+    private final AtomicLong rowsParsed = new AtomicLong();
+    
+    /**
+     * 已成功保存的联系人数
+     */
+    private final AtomicLong rowsSaved = new AtomicLong();
+    
+    /**
+     * 与已有联系人或前面的行重复的行数
+     */
+    private final AtomicLong rowsMatched = new AtomicLong();
+    
+    /**
+     * 重复行中已合并到已有联系人的行数
+     */
+    private final AtomicLong rowsMerged = new AtomicLong();
+    
+    /**
+     * 保存失败的行数
+     */
+    private final AtomicLong rowsFailed = new AtomicLong();
+    
+    /**
+     * 开始时间（毫秒）
+     */
+    private volatile long startTime = System.currentTimeMillis();
+    
+    /**
+     * 结束时间（毫秒），未结束时为0
+     */
+    private volatile long endTime;
+    
+    // ==================== 计数方法 ====================
+    
+    public void start() { this.startTime = System.currentTimeMillis(); }
+    public void finish() { this.endTime = System.currentTimeMillis(); }
+    
+    public void addParsed(long count) { rowsParsed.addAndGet(count); }
+    public void addSaved(long count) { rowsSaved.addAndGet(count); }
+    public void addMatched(long count) { rowsMatched.addAndGet(count); }
+    public void addMerged(long count) { rowsMerged.addAndGet(count); }
+    public void addFailed(long count) { rowsFailed.addAndGet(count); }
+    
+    // ==================== Getter 方法 ====================
+    
+    public long getRowsParsed() { return rowsParsed.get(); }
+    public long getRowsSaved() { return rowsSaved.get(); }
+    public long getRowsMatched() { return rowsMatched.get(); }
+    public long getRowsMerged() { return rowsMerged.get(); }
+    public long getRowsFailed() { return rowsFailed.get(); }
+    public long getStartTime() { return startTime; }
+    public long getEndTime() { return endTime; }
+    
+    /**
+     * 获取已耗费的时间
+     * @return 耗时（毫秒），导入未结束时计算到当前时刻
+     */
+    public long getElapsedMillis() {
+        long end = endTime > 0 ? endTime : System.currentTimeMillis();
+        return Math.max(end - startTime, 0);
+    }
+    
+    /**
+     * 获取导入速度
+     * @return 每秒处理的行数，包括保存的行和重复的行
+     */
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : (rowsSaved.get() + rowsMatched.get()) * 1000.0 / elapsed;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImportStats{" +
+                "rowsParsed=" + rowsParsed +
+                ", rowsSaved=" + rowsSaved +
+                ", rowsMatched=" + rowsMatched +
+                ", rowsMerged=" + rowsMerged +
+                ", rowsFailed=" + rowsFailed +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.contacts.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单个请求的诊断信息
+ * 记录请求期间执行的SQL语句数、JDBC耗时、加载的实体数、flush次数和分配的内存
+ * 
+ * 计数只统计请求线程上发生的操作，后台线程（如异步导入）不计入
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class RequestDiagnostics {
+    
+    /**
+     * 诊断信息响应头名称
+     */
+    public static final String HEADER = "X-Request-Diagnostics";
+    
+    private final String method;
+    private final String uri;
+    private final LocalDateTime startTime = LocalDateTime.now();
+    
+    private int status;
+    private long statements;
+    private long jdbcNanos;
+    private long entitiesLoaded;
+    private long flushes;
+    private long allocatedBytes;
+    private long elapsedNanos;
+    
+    /**
+     * 构造函数
+     * @param method HTTP方法
+     * @param uri 请求路径
+     */
+    public RequestDiagnostics(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+    
+    /**
+     * 记录一次JDBC执行（批处理算一次）
+     * @param nanos 执行耗时（纳秒）
+     */
+    public void addStatement(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+    
+    /**
+     * 记录一个实体被加载
+     */
+    public void addEntityLoaded() {
+        entitiesLoaded++;
+    }
+    
+    /**
+     * 记录一次flush
+     */
+    public void addFlush() {
+        flushes++;
+    }
+    
+    /**
+     * 生成响应头的值
+     * @return 形如 statements=3; jdbc-ms=1.20; entities=12; flushes=0; allocated-bytes=1024; elapsed-ms=5.31
+     */
+    public String toHeaderValue() {
+        return String.format("statements=%d; jdbc-ms=%.2f; entities=%d; flushes=%d; allocated-bytes=%d; elapsed-ms=%.2f",
+            statements, getJdbcMillis(), entitiesLoaded, flushes, allocatedBytes, getElapsedMillis());
+    }
+    
+    // ==================== Getter 和 Setter 方法 ====================
+    
+    public String getMethod() { return method; }
+    public String getUri() { return uri; }
+    public LocalDateTime getStartTime() { return startTime; }
+    
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    
+    public long getStatements() { return statements; }
+    public double getJdbcMillis() { return jdbcNanos / 1_000_000.0; }
+    public long getEntitiesLoaded() { return entitiesLoaded; }
+    public long getFlushes() { return flushes; }
+    
+    public long getAllocatedBytes() { return allocatedBytes; }
+    public void setAllocatedBytes(long allocatedBytes) { this.allocatedBytes = allocatedBytes; }
+    
+    public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+    public void setElapsedNanos(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+}
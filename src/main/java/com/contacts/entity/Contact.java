@@ -1,5 +1,8 @@
 package com.contacts.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -14,14 +17,33 @@ import java.util.List;
  * @version 1.0
  */
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = {
+    @Index(name = "idx_contacts_favorite_name_id", columnList = "is_favorite DESC, name, id")
+})
 public class Contact {
     
+    /**
+     * 联系人ID序列
+     */
+    public static final String ID_SEQUENCE = "contacts_seq";
+    
+    /**
+     * 每个序列值分配的ID数量，与序列的INCREMENT BY一致
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     /**
      * 联系人唯一标识ID，自动生成
+     * 使用pooled-lo序列：每个序列值v代表[v, v+50)这一段ID，插入前即可得到ID，
+     * 插入可以JDBC批处理，每50个联系人才访问一次序列
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+        @Parameter(name = "sequence_name", value = ID_SEQUENCE),
+        @Parameter(name = "increment_size", value = "" + ID_ALLOCATION_SIZE),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
     
     /**
@@ -33,9 +55,9 @@ public class Contact {
     
     /**
      * 是否收藏标记
-     * true: 已收藏，false: 未收藏
+     * true: 已收藏，false: 未收藏，不为null
      */
-    @Column(name = "is_favorite")
+    @Column(name = "is_favorite", nullable = false)
     private Boolean favorite = false;
     
     /**
@@ -62,12 +84,21 @@ public class Contact {
     @Column(name = "updated_time")
     private LocalDateTime updatedTime;
     
+    /**
+     * 乐观锁版本号，每次更新加1
+     * 更新语句以读取时的版本号为条件，并发修改时后提交的一方失败，不会互相覆盖
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     /**
      * 联系方式列表
      * 一个联系人可以有多种联系方式（电话、邮箱、微信等）
      * 使用级联操作，删除联系人时自动删除其所有联系方式
+     * 延迟加载，需要联系方式的查询通过实体图或JOIN FETCH显式抓取
      */
-    @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ContactMethod> contactMethods = new ArrayList<>();
     
     /**
@@ -102,7 +133,7 @@ public class Contact {
     
     public Boolean getFavorite() { return favorite; }
     public void setFavorite(Boolean favorite) { 
-        this.favorite = favorite; 
+        this.favorite = Boolean.TRUE.equals(favorite); 
         this.updatedTime = LocalDateTime.now();
     }
     
@@ -124,6 +155,9 @@ public class Contact {
     public LocalDateTime getUpdatedTime() { return updatedTime; }
     public void setUpdatedTime(LocalDateTime updatedTime) { this.updatedTime = updatedTime; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public List<ContactMethod> getContactMethods() { return contactMethods; }
     public void setContactMethods(List<ContactMethod> contactMethods) { this.contactMethods = contactMethods; }
     
@@ -1,5 +1,9 @@
 package com.contacts.entity;
 
+import com.contacts.util.NormalizeUtils;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 
@@ -12,14 +16,34 @@ import javax.validation.constraints.NotBlank;
  * @version 1.0
  */
 @Entity
-@Table(name = "contact_methods")
+@Table(name = "contact_methods", indexes = {
+    @Index(name = "idx_contact_methods_contact_type", columnList = "contact_id, type, id"),
+    @Index(name = "idx_contact_methods_type_lower", columnList = "type, value_lower"),
+    @Index(name = "idx_contact_methods_type_digits", columnList = "type, value_digits")
+})
 public class ContactMethod {
     
+    /**
+     * 联系方式ID序列
+     */
+    public static final String ID_SEQUENCE = "contact_methods_seq";
+    
+    /**
+     * 每个序列值分配的ID数量，与序列的INCREMENT BY一致
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     /**
      * 联系方式唯一标识ID，自动生成
+     * 使用pooled-lo序列，级联保存联系人时联系方式的插入也可以批处理
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+        @Parameter(name = "sequence_name", value = ID_SEQUENCE),
+        @Parameter(name = "increment_size", value = "" + ID_ALLOCATION_SIZE),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
     
     /**
@@ -38,6 +62,20 @@ public class ContactMethod {
     @Column(name = "method_value", nullable = false, length = 200)
     private String methodValue;
     
+    /**
+     * 规范化后的小写值，用于忽略大小写的查找和搜索
+     * 保存前根据联系方式值自动计算
+     */
+    @Column(name = "value_lower", length = 200)
+    private String valueLower;
+    
+    /**
+     * 电话和QQ的纯数字形式，用于号码查找，其他类型为null
+     * 保存前根据联系方式值自动计算
+     */
+    @Column(name = "value_digits", length = 200)
+    private String valueDigits;
+    
     /**
      * 联系方式标签
      * 用于区分同类型的不同联系方式，如：工作、家庭、个人等
@@ -97,6 +135,16 @@ public class ContactMethod {
     public Contact getContact() { return contact; }
     public void setContact(Contact contact) { this.contact = contact; }
     
+    /**
+     * 保存前计算规范化列
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalize() {
+        this.valueLower = NormalizeUtils.lower(methodValue);
+        this.valueDigits = NormalizeUtils.methodDigits(type, methodValue);
+    }
+    
     /**
      * 获取联系方式类型的显示名称
      * @return 类型的中文显示名称
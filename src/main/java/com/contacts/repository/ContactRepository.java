@@ -1,12 +1,19 @@
 package com.contacts.repository;
 
+import com.contacts.dto.ContactSummary;
 import com.contacts.entity.Contact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 联系人数据访问层接口
@@ -18,10 +25,33 @@ import java.util.List;
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
     
+    /**
+     * 联系人摘要投影的查询前缀
+     * 主要电话和邮箱由子查询在数据库中计算（取ID最小的一条），不加载实体和联系方式集合
+     */
+    String SUMMARY_SELECT = "SELECT new com.contacts.dto.ContactSummary(c.id, c.name, c.company, c.favorite, " +
+        "(SELECT p.methodValue FROM ContactMethod p WHERE p.id = " +
+        "(SELECT MIN(p2.id) FROM ContactMethod p2 WHERE p2.contact = c " +
+        "AND p2.type = com.contacts.entity.ContactMethodType.PHONE)), " +
+        "(SELECT e.methodValue FROM ContactMethod e WHERE e.id = " +
+        "(SELECT MIN(e2.id) FROM ContactMethod e2 WHERE e2.contact = c " +
+        "AND e2.type = com.contacts.entity.ContactMethodType.EMAIL))) " +
+        "FROM Contact c ";
+    
+    /**
+     * 根据ID查找联系人，并一次性抓取其联系方式
+     * 用于详情和编辑页面
+     * @param id 联系人ID
+     * @return 联系人Optional对象
+     */
+    @EntityGraph(attributePaths = "contactMethods")
+    Optional<Contact> findWithMethodsById(Long id);
+    
     /**
      * 查找所有已收藏的联系人
      * @return 收藏的联系人列表
      */
+    @EntityGraph(attributePaths = "contactMethods")
     List<Contact> findByFavoriteTrue();
     
     /**
@@ -29,8 +59,66 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
      * 收藏的联系人排在前面，同状态按姓名升序排列
      * @return 排序后的联系人列表
      */
+    @EntityGraph(attributePaths = "contactMethods")
     List<Contact> findAllByOrderByFavoriteDescNameAsc();
     
+    /**
+     * 获取所有联系人摘要，按收藏状态和姓名排序
+     * @return 排序后的联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> findAllSummaries();
+    
+    /**
+     * 获取所有已收藏的联系人摘要，按姓名排序
+     * @return 收藏的联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT + "WHERE c.favorite = true ORDER BY c.name ASC, c.id ASC")
+    List<ContactSummary> findFavoriteSummaries();
+    
+    /**
+     * 键集分页：获取第一页联系人摘要
+     * 排序为收藏降序、姓名升序、ID升序
+     * @param pageable 分页参数（只使用页大小）
+     * @return 联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> findFirstPage(Pageable pageable);
+    
+    /**
+     * 键集分页：获取排在某个收藏联系人之后的收藏联系人
+     * 只查收藏联系人，在索引上是一段连续范围；不足一页时由调用方用findFirstNonFavoritePage补足
+     * @param name 上一页最后一个联系人的姓名
+     * @param id 上一页最后一个联系人的ID
+     * @param pageable 分页参数（只使用页大小）
+     * @return 联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT +
+           "WHERE c.favorite = true AND (c.name > :name OR (c.name = :name AND c.id > :id)) " +
+           "ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> findPageAfterFavorite(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * 键集分页：获取排在最前的未收藏联系人
+     * 用于收藏联系人翻完后补足当前页
+     * @param pageable 分页参数（只使用页大小）
+     * @return 联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT + "WHERE c.favorite = false ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> findFirstNonFavoritePage(Pageable pageable);
+    
+    /**
+     * 键集分页：获取排在某个未收藏联系人之后的联系人
+     * @param name 上一页最后一个联系人的姓名
+     * @param id 上一页最后一个联系人的ID
+     * @param pageable 分页参数（只使用页大小）
+     * @return 联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT +
+           "WHERE c.favorite = false AND (c.name > :name OR (c.name = :name AND c.id > :id)) " +
+           "ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> findPageAfterNonFavorite(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+    
     /**
      * 按姓名模糊搜索联系人（忽略大小写）
      * @param name 搜索关键词
@@ -39,14 +127,68 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     List<Contact> findByNameContainingIgnoreCase(String name);
     
     /**
-     * 综合搜索联系人
-     * 在姓名、公司、联系方式值中搜索关键词
+     * 综合搜索联系人摘要
+     * 在姓名、公司、联系方式值中搜索关键词，按收藏状态和姓名排序
      * @param keyword 搜索关键词
-     * @return 匹配的联系人列表
+     * @return 匹配的联系人摘要列表
      */
-    @Query("SELECT DISTINCT c FROM Contact c LEFT JOIN c.contactMethods m " +
+    @Query(SUMMARY_SELECT +
            "WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "OR LOWER(c.company) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(m.methodValue) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Contact> searchContacts(@Param("keyword") String keyword);
+           "OR EXISTS (SELECT m.id FROM ContactMethod m WHERE m.contact = c " +
+           "AND m.valueLower LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> searchSummaries(@Param("keyword") String keyword);
+    
+    /**
+     * 根据ID列表查询联系人摘要，按收藏状态和姓名排序
+     * @param ids 联系人ID集合
+     * @return 排序后的联系人摘要列表
+     */
+    @Query(SUMMARY_SELECT + "WHERE c.id IN :ids ORDER BY c.favorite DESC, c.name ASC, c.id ASC")
+    List<ContactSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 按ID键集分页查询联系人ID
+     * 只返回ID大于lastId的下一批记录，避免OFFSET分页在大数据量下越翻越慢
+     * @param lastId 上一批最后一个联系人ID，首批传0
+     * @param pageable 分页参数（只使用页大小）
+     * @return 按ID升序排列的联系人ID列表
+     */
+    @Query("SELECT c.id FROM Contact c WHERE c.id > :lastId ORDER BY c.id ASC")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    /**
+     * 根据ID列表查询联系人，并一次性抓取其联系方式
+     * @param ids 联系人ID列表
+     * @return 按ID升序排列的联系人列表
+     */
+    @Query("SELECT DISTINCT c FROM Contact c LEFT JOIN FETCH c.contactMethods WHERE c.id IN :ids ORDER BY c.id ASC")
+    List<Contact> findAllWithMethodsByIdIn(@Param("ids") List<Long> ids);
+    
+    /**
+     * 切换联系人的收藏状态
+     * 单条UPDATE语句在数据库中取反并递增版本号，不加载实体；不会同步持久化上下文中已加载的联系人
+     * @param id 联系人ID
+     * @param now 更新时间
+     * @return 更新的行数，联系人不存在时为0
+     */
+    @Modifying
+    @Query("UPDATE Contact c SET c.favorite = CASE WHEN c.favorite = true THEN false ELSE true END, " +
+        "c.updatedTime = :now, c.version = c.version + 1 WHERE c.id = :id")
+    int toggleFavorite(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    /**
+     * 批量设置联系人的收藏状态
+     * 只更新状态实际变化的行并递增其版本号，不加载实体；不会同步持久化上下文中已加载的联系人
+     * @param ids 联系人ID列表
+     * @param favorite 是否收藏
+     * @param now 更新时间
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE Contact c SET c.favorite = :favorite, c.updatedTime = :now, c.version = c.version + 1 " +
+        "WHERE c.id IN :ids AND c.favorite <> :favorite")
+    int updateFavorite(@Param("ids") Collection<Long> ids, @Param("favorite") boolean favorite,
+                       @Param("now") LocalDateTime now);
 }
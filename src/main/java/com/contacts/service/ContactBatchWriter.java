@@ -0,0 +1,312 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactMethodChanges;
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.util.NormalizeUtils;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 联系人批量写入服务
+ * 绕过JPA持久化上下文，使用JDBC批处理一次性插入、更新或删除一批联系人及其联系方式；
+ * 插入时与Hibernate共用ID序列，ID在插入前分配
+ * 适用于导入、批量接口等大批量写入场景
+ * 
+ * 传入的联系人不能是当前持久化上下文中的托管对象，否则事务提交时Hibernate会再次写入
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactBatchWriter {
+    
+    private static final String INSERT_CONTACT_SQL =
+        "INSERT INTO contacts (id, name, company, is_favorite, notes, created_time, updated_time, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    private static final String INSERT_METHOD_SQL =
+        "INSERT INTO contact_methods (id, contact_id, type, method_value, label, value_lower, value_digits) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_CONTACT_SQL =
+        "UPDATE contacts SET name = ?, company = ?, is_favorite = ?, notes = ?, updated_time = ?, version = version + 1 " +
+        "WHERE id = ? AND version = ?";
+    
+    private static final String UPDATE_METHOD_SQL =
+        "UPDATE contact_methods SET type = ?, method_value = ?, label = ?, value_lower = ?, value_digits = ? " +
+        "WHERE id = ?";
+    
+    private static final String DELETE_METHOD_SQL = "DELETE FROM contact_methods WHERE id = ?";
+    
+    private static final String DELETE_METHODS_SQL = "DELETE FROM contact_methods WHERE contact_id = ?";
+    
+    private static final String DELETE_CONTACT_SQL = "DELETE FROM contacts WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ContactIndexer contactIndexer;
+    
+    @Autowired
+    private ContactCache contactCache;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private String nextContactIdSql;
+    private String nextMethodIdSql;
+    
+    /**
+     * 按数据库方言生成读取序列下一个值的SQL
+     */
+    @PostConstruct
+    void init() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        nextContactIdSql = dialect.getSequenceNextValString(Contact.ID_SEQUENCE);
+        nextMethodIdSql = dialect.getSequenceNextValString(ContactMethod.ID_SEQUENCE);
+    }
+    
+    /**
+     * 在一个事务中批量插入联系人及其联系方式
+     * 插入前从序列分配联系人和联系方式的ID，并在事务提交后更新搜索索引和缓存
+     * 
+     * @param contacts 待插入的联系人列表
+     * @return 插入的联系人数量
+     */
+    @Transactional
+    public int insertAll(List<Contact> contacts) {
+        int inserted = insert(contacts);
+        contacts.forEach(contactIndexer::index);
+        contacts.forEach(contactCache::evict);
+        return inserted;
+    }
+    
+    /**
+     * 在一个事务中批量插入联系人及其联系方式，不更新搜索索引和缓存
+     * 只用于索引全量构建之前的数据填充，插入的联系人需要重建索引后才能被搜索到
+     * 
+     * @param contacts 待插入的联系人列表
+     * @return 插入的联系人数量
+     */
+    @Transactional
+    public int insertAllWithoutIndexing(List<Contact> contacts) {
+        return insert(contacts);
+    }
+    
+    /**
+     * 在一个事务中批量更新联系人及其联系方式的变化，并在事务提交后更新搜索索引和缓存
+     * 以联系人读取时的版本号为更新条件，已被其他事务修改或删除的联系人连同其联系方式都不写入，
+     * 作为冲突返回，其他联系人照常更新
+     * 
+     * @param contacts 待更新的联系人列表，必须已有ID和版本号，且联系方式为完整的最新状态
+     * @param methodChanges 联系方式的变化，所属联系人必须在contacts中，只写入新增、修改和删除的行
+     * @return 版本冲突、未写入的联系人ID
+     */
+    @Transactional
+    public Set<Long> updateAll(List<Contact> contacts, List<ContactMethodChanges> methodChanges) {
+        if (contacts.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_CONTACT_SQL, contacts, contacts.size(), (ps, contact) -> {
+            ps.setString(1, contact.getName());
+            ps.setString(2, contact.getCompany());
+            ps.setBoolean(3, Boolean.TRUE.equals(contact.getFavorite()));
+            ps.setString(4, contact.getNotes());
+            ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setLong(6, contact.getId());
+            ps.setLong(7, contact.getVersion());
+        });
+        // 部分驱动返回SUCCESS_NO_INFO(-2)，只有明确为0才视为冲突
+        Set<Long> conflicts = new HashSet<>();
+        List<Contact> updated = new ArrayList<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            if (counts[0][i] == 0) {
+                conflicts.add(contact.getId());
+            } else {
+                contact.setVersion(contact.getVersion() + 1);
+                updated.add(contact);
+            }
+        }
+        
+        List<ContactMethod> added = new ArrayList<>();
+        List<ContactMethod> changed = new ArrayList<>();
+        List<ContactMethod> removed = new ArrayList<>();
+        for (ContactMethodChanges changes : methodChanges) {
+            if (!conflicts.contains(changes.getContact().getId())) {
+                added.addAll(changes.getAdded());
+                changed.addAll(changes.getUpdated());
+                removed.addAll(changes.getRemoved());
+            }
+        }
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_METHOD_SQL, removed, removed.size(),
+                (ps, method) -> ps.setLong(1, method.getId()));
+        }
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_METHOD_SQL, changed, changed.size(), (ps, method) -> {
+                ps.setString(1, method.getType().name());
+                ps.setString(2, method.getMethodValue());
+                setLabel(ps, 3, method);
+                ps.setString(4, NormalizeUtils.lower(method.getMethodValue()));
+                ps.setString(5, NormalizeUtils.methodDigits(method.getType(), method.getMethodValue()));
+                ps.setLong(6, method.getId());
+            });
+        }
+        insertMethodRows(added);
+        
+        updated.forEach(contactIndexer::index);
+        updated.forEach(contactCache::evict);
+        return conflicts;
+    }
+    
+    /**
+     * 在一个事务中批量删除联系人及其联系方式，并在事务提交后更新搜索索引和缓存
+     * 
+     * @param contacts 待删除的联系人列表
+     * @return 删除的联系人数量
+     */
+    @Transactional
+    public int deleteAll(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return 0;
+        }
+        
+        deleteMethods(contacts);
+        jdbcTemplate.batchUpdate(DELETE_CONTACT_SQL, contacts, contacts.size(),
+            (ps, contact) -> ps.setLong(1, contact.getId()));
+        contacts.forEach(contact -> contactIndexer.remove(contact.getId()));
+        contacts.forEach(contactCache::evict);
+        return contacts.size();
+    }
+    
+    /**
+     * 批量插入联系人及其联系方式
+     */
+    private int insert(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return 0;
+        }
+        
+        insertContacts(contacts);
+        insertMethods(contacts);
+        return contacts.size();
+    }
+    
+    /**
+     * 分配ID后批量插入联系人
+     */
+    private void insertContacts(List<Contact> contacts) {
+        long[] ids = allocateIds(nextContactIdSql, Contact.ID_ALLOCATION_SIZE, contacts.size());
+        for (int i = 0; i < contacts.size(); i++) {
+            contacts.get(i).setId(ids[i]);
+            contacts.get(i).setVersion(0L);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_CONTACT_SQL, contacts, contacts.size(), (ps, contact) -> {
+            ps.setLong(1, contact.getId());
+            ps.setString(2, contact.getName());
+            ps.setString(3, contact.getCompany());
+            ps.setBoolean(4, Boolean.TRUE.equals(contact.getFavorite()));
+            ps.setString(5, contact.getNotes());
+            ps.setTimestamp(6, Timestamp.valueOf(contact.getCreatedTime() != null ? contact.getCreatedTime() : now));
+            ps.setTimestamp(7, Timestamp.valueOf(contact.getUpdatedTime() != null ? contact.getUpdatedTime() : now));
+        });
+    }
+    
+    /**
+     * 按pooled-lo方式从序列分配ID，与Hibernate的ID生成器共用序列
+     * 每个序列值v代表[v, v+allocationSize)这一段ID，分配count个ID需要访问序列count/allocationSize次（向上取整）
+     * 
+     * @param nextValueSql 读取序列下一个值的SQL
+     * @param allocationSize 每个序列值代表的ID数量
+     * @param count 需要的ID数量
+     * @return 分配的ID
+     */
+    private long[] allocateIds(String nextValueSql, int allocationSize, int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long lo = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            for (int i = 0; i < allocationSize && filled < count; i++) {
+                ids[filled++] = lo + i;
+            }
+        }
+        return ids;
+    }
+    
+    /**
+     * 批量删除联系人的所有联系方式
+     */
+    private void deleteMethods(List<Contact> contacts) {
+        jdbcTemplate.batchUpdate(DELETE_METHODS_SQL, contacts, contacts.size(),
+            (ps, contact) -> ps.setLong(1, contact.getId()));
+    }
+    
+    /**
+     * 批量插入所有联系人的联系方式
+     */
+    private void insertMethods(List<Contact> contacts) {
+        List<ContactMethod> methods = new ArrayList<>();
+        for (Contact contact : contacts) {
+            for (ContactMethod method : contact.getContactMethods()) {
+                method.setContact(contact);
+                methods.add(method);
+            }
+        }
+        insertMethodRows(methods);
+    }
+    
+    /**
+     * 分配ID后批量插入联系方式，联系方式必须已关联到有ID的联系人
+     */
+    private void insertMethodRows(List<ContactMethod> methods) {
+        if (methods.isEmpty()) {
+            return;
+        }
+        
+        long[] ids = allocateIds(nextMethodIdSql, ContactMethod.ID_ALLOCATION_SIZE, methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            methods.get(i).setId(ids[i]);
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_METHOD_SQL, methods, methods.size(), (ps, method) -> {
+            ps.setLong(1, method.getId());
+            ps.setLong(2, method.getContact().getId());
+            ps.setString(3, method.getType().name());
+            ps.setString(4, method.getMethodValue());
+            setLabel(ps, 5, method);
+            ps.setString(6, NormalizeUtils.lower(method.getMethodValue()));
+            ps.setString(7, NormalizeUtils.methodDigits(method.getType(), method.getMethodValue()));
+        });
+    }
+    
+    private void setLabel(PreparedStatement ps, int index, ContactMethod method) throws SQLException {
+        if (method.getLabel() != null) {
+            ps.setString(index, method.getLabel());
+        } else {
+            ps.setNull(index, Types.VARCHAR);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.contacts.service;
+
+import com.contacts.dto.CacheStatistics;
+import com.contacts.dto.ContactSummary;
+import com.contacts.entity.Contact;
+import com.contacts.util.TransactionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 联系人缓存
+ * 基于Caffeine缓存联系人详情（含联系方式）和收藏联系人摘要列表，按容量和写入时间淘汰
+ * 
+ * 缓存中的联系人必须是已脱离持久化上下文的对象，且调用方只能读取不能修改；
+ * 需要修改联系人时应从数据库重新加载
+ * 
+ * 写操作通过evict精确失效：立即失效一次，事务提交后再失效一次，
+ * 避免事务提交前被并发读取重新载入旧数据
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactCache {
+    
+    private static final String FAVORITES_KEY = "favorites";
+    
+    /**
+     * 联系人ID -> 联系人详情
+     */
+    private final Cache<Long, Contact> contacts;
+    
+    /**
+     * 收藏列表，只有一个条目
+     */
+    private final Cache<String, List<ContactSummary>> favorites;
+    
+    /**
+     * 构造函数
+     * @param maxSize 联系人详情缓存的最大条目数
+     * @param contactExpireSeconds 联系人详情写入后的过期时间（秒）
+     * @param favoritesExpireSeconds 收藏列表写入后的过期时间（秒）
+     */
+    public ContactCache(@Value("${contacts.cache.contact.max-size:10000}") long maxSize,
+                        @Value("${contacts.cache.contact.expire-seconds:600}") long contactExpireSeconds,
+                        @Value("${contacts.cache.favorites.expire-seconds:60}") long favoritesExpireSeconds) {
+        this.contacts = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(contactExpireSeconds))
+            .recordStats()
+            .build();
+        this.favorites = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(Duration.ofSeconds(favoritesExpireSeconds))
+            .recordStats()
+            .build();
+    }
+    
+    /**
+     * 读取联系人，未命中时通过loader加载并缓存
+     * loader返回null表示联系人不存在，不会被缓存
+     * 
+     * @param id 联系人ID
+     * @param loader 加载函数，返回已脱离持久化上下文的联系人
+     * @return 联系人Optional对象
+     */
+    public Optional<Contact> getContact(Long id, Function<Long, Contact> loader) {
+        return Optional.ofNullable(contacts.get(id, loader));
+    }
+    
+    /**
+     * 读取收藏列表，未命中时通过loader加载并缓存
+     * @param loader 加载函数
+     * @return 收藏的联系人摘要列表
+     */
+    public List<ContactSummary> getFavorites(Supplier<List<ContactSummary>> loader) {
+        return favorites.get(FAVORITES_KEY, key -> loader.get());
+    }
+    
+    /**
+     * 使联系人相关的缓存失效
+     * 只有联系人当前已收藏或出现在已缓存的收藏列表中时才会失效收藏列表
+     * 
+     * @param contact 被修改、新增或删除的联系人
+     */
+    public void evict(Contact contact) {
+        evict(contact.getId(), Boolean.TRUE.equals(contact.getFavorite()));
+    }
+    
+    /**
+     * 使联系人相关的缓存失效，用于没有加载联系人实体的写操作
+     * 
+     * @param id 联系人ID
+     * @param favorite 联系人修改后是否已收藏
+     */
+    public void evict(Long id, boolean favorite) {
+        evictNow(id, favorite);
+        TransactionUtils.afterCommit(() -> evictNow(id, favorite));
+    }
+    
+    /**
+     * 获取各缓存的命中率等统计信息
+     * @return 统计信息列表
+     */
+    public List<CacheStatistics> getStatistics() {
+        return Arrays.asList(
+            CacheStatistics.of("contact", contacts),
+            CacheStatistics.of("favorites", favorites));
+    }
+    
+    private void evictNow(Long id, boolean favorite) {
+        if (id != null) {
+            contacts.invalidate(id);
+        }
+        if (favorite || listedInFavorites(id)) {
+            favorites.invalidate(FAVORITES_KEY);
+        }
+    }
+    
+    private boolean listedInFavorites(Long id) {
+        // 通过asMap读取，不计入命中率统计
+        List<ContactSummary> cached = favorites.asMap().get(FAVORITES_KEY);
+        if (cached == null || id == null) {
+            return false;
+        }
+        for (ContactSummary contact : cached) {
+            if (id.equals(contact.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,462 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactMethodChanges;
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+import com.contacts.repository.ContactRepository;
+import com.contacts.util.NormalizeUtils;
+import com.contacts.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 导入去重服务
+ * 导入开始时用一条查询读取已有联系人的姓名和联系方式，规范化后计算64位哈希，
+ * 建立 哈希 -> 联系人ID 的内存索引；导入过程中每行只在索引中做O(1)查找，不逐行查询数据库
+ * 
+ * 规范化规则见NormalizeUtils：电话只保留数字并去掉+86/0086国家码，QQ只保留数字，
+ * 邮箱、微信等转小写，姓名做NFKC规范化、去掉空白并转小写；
+ * 电话、邮箱、微信、QQ等联系方式任意一项相同即视为重复，该行没有这些联系方式时才按姓名匹配，地址不参与匹配
+ * 
+ * 64位哈希的碰撞概率在百万级键时约为10^-8，可以忽略
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactDeduplicator {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContactDeduplicator.class);
+    
+    /**
+     * 重复行处理方式
+     */
+    public enum Policy {
+        /** 不去重，所有行作为新联系人插入 */
+        NONE,
+        /** 跳过与已有联系人重复的行 */
+        SKIP,
+        /** 把重复行中新的联系方式和已有联系人缺少的公司、备注合并到已有联系人 */
+        MERGE;
+        
+        /**
+         * 根据名称获取处理方式，忽略大小写
+         * @param name 处理方式名称
+         * @return 处理方式
+         * @throws IllegalArgumentException 如果名称不支持
+         */
+        public static Policy of(String name) {
+            for (Policy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("不支持的重复处理方式: " + name);
+        }
+    }
+    
+    private static final String SNAPSHOT_SQL =
+        "SELECT c.id, c.name, m.type, m.method_value FROM contacts c " +
+        "LEFT JOIN contact_methods m ON m.contact_id = c.id";
+    
+    /**
+     * 读取已有联系人时每次从数据库获取的行数
+     */
+    private static final int SNAPSHOT_FETCH_SIZE = 1000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ContactBatchWriter contactBatchWriter;
+    
+    @Autowired
+    private ContactRepository contactRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * 未指定时使用的重复行处理方式
+     */
+    @Value("${contacts.import.duplicate-policy:none}")
+    private String defaultPolicy;
+    
+    /**
+     * 获取配置的默认重复行处理方式
+     * @return 默认处理方式
+     */
+    public Policy getDefaultPolicy() {
+        return Policy.of(defaultPolicy);
+    }
+    
+    /**
+     * 开始一次导入的去重会话
+     * 处理方式不是NONE时读取全部已有联系人建立索引；
+     * 在只读事务中读取，部分数据库（如PostgreSQL）只在事务中才按fetchSize分批读取游标
+     * 
+     * @param policy 重复行处理方式
+     * @return 去重会话，只能在一个线程中使用
+     */
+    @Transactional(readOnly = true)
+    public Session open(Policy policy) {
+        Session session = new Session(policy);
+        if (policy != Policy.NONE) {
+            long start = System.currentTimeMillis();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SNAPSHOT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(SNAPSHOT_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                long id = rs.getLong(1);
+                session.index.putIfAbsent(nameKey(rs.getString(2)), id);
+                String type = rs.getString(3);
+                if (type != null) {
+                    session.index.putIfAbsent(methodKey(ContactMethodType.valueOf(type), rs.getString(4)), id);
+                }
+            });
+            log.info("导入去重索引加载完成: {}个键, 耗时{}ms", session.index.size(), System.currentTimeMillis() - start);
+        }
+        return session;
+    }
+    
+    /**
+     * 一次导入的去重会话
+     * 持有已有联系人和本次导入已写入联系人的键索引，后面的行与前面的行重复时同样能识别
+     */
+    public final class Session {
+        
+        private final Policy policy;
+        private final KeyIndex index = new KeyIndex();
+        
+        private Session(Policy policy) {
+            this.policy = policy;
+        }
+        
+        public Policy getPolicy() { return policy; }
+        
+        /**
+         * 按处理方式写入一批联系人
+         * 新联系人批量插入，重复行跳过或合并到已有联系人；插入和合并在同一个事务中，
+         * 事务提交后才把本批次的键加入索引
+         * 
+         * @param contacts 本批次解析出的联系人
+         * @return 写入结果
+         */
+        public Result save(List<Contact> contacts) {
+            if (policy == Policy.NONE) {
+                return new Result(contactBatchWriter.insertAll(contacts), 0, 0);
+            }
+            
+            List<Contact> inserts = new ArrayList<>();
+            Map<Long, Contact> pendingKeys = new HashMap<>();
+            Map<Long, List<Contact>> duplicates = new LinkedHashMap<>();
+            int matched = 0;
+            int mergedPending = 0;
+            for (Contact contact : contacts) {
+                Contact pending = null;
+                long existingId = 0;
+                for (long key : matchKeys(contact)) {
+                    pending = pendingKeys.get(key);
+                    existingId = index.get(key);
+                    if (pending != null || existingId != 0) {
+                        break;
+                    }
+                }
+                
+                if (pending != null) {
+                    // 与本批次前面的行重复，直接合并到待插入的联系人
+                    matched++;
+                    if (policy == Policy.MERGE && merge(pending, contact)) {
+                        mergedPending++;
+                        for (long key : matchKeys(pending)) {
+                            pendingKeys.putIfAbsent(key, pending);
+                        }
+                    }
+                } else if (existingId != 0) {
+                    matched++;
+                    if (policy == Policy.MERGE) {
+                        duplicates.computeIfAbsent(existingId, id -> new ArrayList<>()).add(contact);
+                    }
+                } else {
+                    inserts.add(contact);
+                    matchKeys(contact).forEach(key -> pendingKeys.putIfAbsent(key, contact));
+                }
+            }
+            
+            int matchedRows = matched;
+            int mergedRows = mergedPending;
+            return transactionTemplate.execute(status -> {
+                int inserted = contactBatchWriter.insertAll(inserts);
+                TransactionUtils.afterCommit(() -> inserts.forEach(this::register));
+                int mergedExisting = duplicates.isEmpty() ? 0 : mergeExisting(duplicates);
+                return new Result(inserted, matchedRows, mergedRows + mergedExisting);
+            });
+        }
+        
+        /**
+         * 把重复行合并到已有联系人
+         * 一次查询加载本批次涉及的已有联系人，合并后通过JDBC批量更新
+         * 
+         * @return 使已有联系人发生变化的行数
+         */
+        private int mergeExisting(Map<Long, List<Contact>> duplicates) {
+            List<Contact> changed = new ArrayList<>();
+            List<ContactMethodChanges> methodChanges = new ArrayList<>();
+            Map<Long, Integer> mergedRowsById = new HashMap<>();
+            for (Contact target : contactRepository.findAllWithMethodsByIdIn(new ArrayList<>(duplicates.keySet()))) {
+                entityManager.detach(target);
+                int mergedRows = 0;
+                for (Contact row : duplicates.get(target.getId())) {
+                    if (merge(target, row)) {
+                        mergedRows++;
+                    }
+                }
+                if (mergedRows == 0) {
+                    continue;
+                }
+                changed.add(target);
+                mergedRowsById.put(target.getId(), mergedRows);
+                // 合并只会追加联系方式，新追加的还没有ID
+                ContactMethodChanges changes = new ContactMethodChanges(target);
+                for (ContactMethod method : target.getContactMethods()) {
+                    if (method.getId() == null) {
+                        changes.getAdded().add(method);
+                    }
+                }
+                if (!changes.isEmpty()) {
+                    methodChanges.add(changes);
+                }
+            }
+            
+            // 读取后已被其他请求修改的联系人不合并，对应的行只计为匹配
+            Set<Long> conflicts = contactBatchWriter.updateAll(changed, methodChanges);
+            changed.removeIf(contact -> conflicts.contains(contact.getId()));
+            TransactionUtils.afterCommit(() -> changed.forEach(this::register));
+            int mergedRows = 0;
+            for (Contact contact : changed) {
+                mergedRows += mergedRowsById.get(contact.getId());
+            }
+            return mergedRows;
+        }
+        
+        /**
+         * 把联系人的姓名和联系方式加入索引，已存在的键保留原来的联系人
+         */
+        private void register(Contact contact) {
+            index.putIfAbsent(nameKey(contact.getName()), contact.getId());
+            for (ContactMethod method : contact.getContactMethods()) {
+                index.putIfAbsent(methodKey(method.getType(), method.getMethodValue()), contact.getId());
+            }
+        }
+    }
+    
+    /**
+     * 一批联系人的写入结果
+     */
+    public static final class Result {
+        
+        private final int inserted;
+        private final int matched;
+        private final int merged;
+        
+        Result(int inserted, int matched, int merged) {
+            this.inserted = inserted;
+            this.matched = matched;
+            this.merged = merged;
+        }
+        
+        /** 作为新联系人插入的行数 */
+        public int getInserted() { return inserted; }
+        /** 与已有联系人或前面的行重复的行数 */
+        public int getMatched() { return matched; }
+        /** 重复行中带来了新信息、已合并的行数 */
+        public int getMerged() { return merged; }
+    }
+    
+    /**
+     * 把重复行合并到目标联系人
+     * 添加目标联系人没有的联系方式，补充目标联系人为空的公司和备注，重复行已收藏时目标也设为收藏；
+     * 姓名和已有的值不会被覆盖
+     * 
+     * @param target 目标联系人
+     * @param row 重复行
+     * @return 目标联系人是否发生变化
+     */
+    private static boolean merge(Contact target, Contact row) {
+        boolean changed = false;
+        Set<Long> known = new HashSet<>();
+        for (ContactMethod method : target.getContactMethods()) {
+            known.add(methodKey(method.getType(), method.getMethodValue()));
+        }
+        for (ContactMethod method : row.getContactMethods()) {
+            if (known.add(methodKey(method.getType(), method.getMethodValue()))) {
+                target.addContactMethod(new ContactMethod(method.getType(), method.getMethodValue(), method.getLabel()));
+                changed = true;
+            }
+        }
+        
+        if (isBlank(target.getCompany()) && !isBlank(row.getCompany())) {
+            target.setCompany(row.getCompany());
+            changed = true;
+        }
+        if (isBlank(target.getNotes()) && !isBlank(row.getNotes())) {
+            target.setNotes(row.getNotes());
+            changed = true;
+        }
+        if (Boolean.TRUE.equals(row.getFavorite()) && !Boolean.TRUE.equals(target.getFavorite())) {
+            target.setFavorite(true);
+            changed = true;
+        }
+        return changed;
+    }
+    
+    /**
+     * 获取用于查找重复的键
+     * 电话、邮箱、微信、QQ的键；这几类联系方式都没有时使用姓名的键
+     */
+    private static List<Long> matchKeys(Contact contact) {
+        List<Long> keys = new ArrayList<>();
+        for (ContactMethod method : contact.getContactMethods()) {
+            if (method.getType() != ContactMethodType.ADDRESS && method.getType() != ContactMethodType.OTHER) {
+                long key = methodKey(method.getType(), method.getMethodValue());
+                if (key != 0) {
+                    keys.add(key);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            long key = nameKey(contact.getName());
+            if (key != 0) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * 计算联系方式规范化后的键
+     * @return 键，规范化后为空时返回0
+     */
+    private static long methodKey(ContactMethodType type, String value) {
+        String digits = NormalizeUtils.methodDigits(type, value);
+        return hash(type, digits != null ? digits : NormalizeUtils.lower(value));
+    }
+    
+    /**
+     * 计算姓名规范化后的键
+     * @return 键，姓名为空时返回0
+     */
+    private static long nameKey(String name) {
+        return hash(null, NormalizeUtils.name(name));
+    }
+    
+    /**
+     * 64位FNV-1a哈希，类型参与计算，不同类型的相同值得到不同的键
+     * @return 哈希值，值为空时返回0
+     */
+    private static long hash(ContactMethodType type, String value) {
+        if (value == null) {
+            return 0;
+        }
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ (type != null ? type.ordinal() + 1 : 0)) * 0x100000001b3L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return h != 0 ? h : 1;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
+    /**
+     * 键 -> 联系人ID 的开放寻址哈希表
+     * 使用基本类型数组，百万级键约占几十MB，避免装箱对象的内存开销；键0表示空槽位
+     */
+    private static final class KeyIndex {
+        
+        private long[] keys = new long[1 << 12];
+        private long[] values = new long[1 << 12];
+        private int size;
+        
+        int size() { return size; }
+        
+        /**
+         * @return 联系人ID，不存在时返回0
+         */
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == 0) {
+                    return 0;
+                }
+            }
+        }
+        
+        void putIfAbsent(long key, long value) {
+            if (key == 0) {
+                return;
+            }
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return;
+                }
+                if (keys[i] == 0) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+        
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    putIfAbsent(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        private static int slot(long key, int mask) {
+            return Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.contacts.service;
+
+import com.contacts.entity.ContactMethodType;
+import com.contacts.util.CountingOutputStream;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 联系人流式导出服务
+ * 为程序调用方提供CSV和NDJSON格式的导出，列与Excel导出一致：
+ * 姓名、公司、是否收藏、电话、邮箱、地址、微信、QQ、备注，同类型的多个联系方式用分号分隔
+ * 
+ * 通过一条联系人与联系方式的连接查询，以数据库游标逐行读取并直接写入输出流，
+ * 不经过JPA实体和Excel工作簿，内存占用与联系人总数无关
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+@Timed(value = "contacts.export", histogram = true)
+public class ContactExportService {
+    
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        /** 逗号分隔值，首行为表头 */
+        CSV("text/csv;charset=UTF-8", "csv"),
+        /** 每行一个JSON对象 */
+        NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+        
+        /**
+         * 根据名称获取导出格式（忽略大小写）
+         * @param name 格式名称，如csv、ndjson
+         * @return 导出格式
+         * @throws IllegalArgumentException 如果格式不支持
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + name);
+        }
+    }
+    
+    /**
+     * 导出的联系方式类型，与Excel导出的列顺序一致
+     */
+    private static final ContactMethodType[] METHOD_COLUMNS = {
+        ContactMethodType.PHONE, ContactMethodType.EMAIL, ContactMethodType.ADDRESS,
+        ContactMethodType.WECHAT, ContactMethodType.QQ
+    };
+    
+    /**
+     * 按联系人ID和联系方式ID排序，同一联系人的行连续出现，联系方式顺序与详情页一致
+     */
+    private static final String EXPORT_SQL =
+        "SELECT c.id, c.name, c.company, c.is_favorite, c.notes, m.type, m.method_value " +
+        "FROM contacts c LEFT JOIN contact_methods m ON m.contact_id = c.id " +
+        "ORDER BY c.id, m.id";
+    
+    /**
+     * 输出缓冲区大小（字符）
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * 数据库游标每次读取的行数
+     */
+    @Value("${contacts.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    private final Map<Format, Counter> exportRows = new EnumMap<>(Format.class);
+    private final Map<Format, Counter> exportBytes = new EnumMap<>(Format.class);
+    private final Map<Format, DistributionSummary> exportRowsPerSecond = new EnumMap<>(Format.class);
+    
+    /**
+     * 注册导出指标，与Excel导出共用指标名，通过format标签区分
+     */
+    @PostConstruct
+    void registerMetrics() {
+        for (Format format : Format.values()) {
+            String tag = format.getExtension();
+            exportRows.put(format, Counter.builder("contacts.export.rows")
+                .description("导出的联系人行数")
+                .baseUnit("rows")
+                .tag("format", tag)
+                .register(meterRegistry));
+            exportBytes.put(format, Counter.builder("contacts.export.bytes")
+                .description("导出写出的字节数")
+                .baseUnit("bytes")
+                .tag("format", tag)
+                .register(meterRegistry));
+            exportRowsPerSecond.put(format, DistributionSummary.builder("contacts.export.rows.per.second")
+                .description("每次导出的平均速度")
+                .baseUnit("rows")
+                .tag("format", tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+    
+    /**
+     * 流式导出所有联系人到输出流
+     * 在只读事务中执行，保证导出的是同一时刻的数据，
+     * 部分数据库（如PostgreSQL）也只在事务中才按fetchSize分批读取游标
+     * 
+     * @param format 导出格式
+     * @param outputStream 目标输出流（如HTTP响应流），由调用方负责关闭
+     * @return 导出的联系人数量
+     * @throws IOException 如果写出过程中发生IO错误（如客户端断开连接）
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(countingStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+        RowAssembler assembler = new RowAssembler(rowWriter);
+        try {
+            rowWriter.begin();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, assembler);
+            assembler.finish();
+            rowWriter.end();
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        // 只统计成功完成的导出，失败或客户端断开时已写出的部分没有交付
+        long rows = assembler.getRows();
+        exportRows.get(format).increment(rows);
+        exportBytes.get(format).increment(countingStream.getByteCount());
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        if (rows > 0 && seconds > 0) {
+            exportRowsPerSecond.get(format).record(rows / seconds);
+        }
+        return rows;
+    }
+    
+    // ==================== 行处理 ====================
+    
+    /**
+     * 一个联系人的导出数据
+     */
+    private static final class ExportRow {
+        
+        final String name;
+        final String company;
+        final boolean favorite;
+        final String notes;
+        final Map<ContactMethodType, StringBuilder> methods = new EnumMap<>(ContactMethodType.class);
+        
+        ExportRow(ResultSet rs) throws SQLException {
+            this.name = rs.getString(2);
+            this.company = rs.getString(3);
+            this.favorite = rs.getBoolean(4);
+            this.notes = rs.getString(5);
+        }
+        
+        void addMethod(String type, String value) {
+            ContactMethodType methodType = ContactMethodType.valueOf(type);
+            StringBuilder values = methods.get(methodType);
+            if (values == null) {
+                methods.put(methodType, new StringBuilder(value));
+            } else {
+                values.append("; ").append(value);
+            }
+        }
+        
+        String methodValues(ContactMethodType type) {
+            StringBuilder values = methods.get(type);
+            return values != null ? values.toString() : "";
+        }
+    }
+    
+    /**
+     * 将连接查询的结果行按联系人合并，每合并完一个联系人立即写出
+     */
+    private static final class RowAssembler implements RowCallbackHandler {
+        
+        private final RowWriter rowWriter;
+        private long currentId = -1;
+        private ExportRow current;
+        private long rows;
+        
+        RowAssembler(RowWriter rowWriter) {
+            this.rowWriter = rowWriter;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (current == null || id != currentId) {
+                finish();
+                current = new ExportRow(rs);
+                currentId = id;
+            }
+            String type = rs.getString(6);
+            if (type != null) {
+                current.addMethod(type, rs.getString(7));
+            }
+        }
+        
+        /**
+         * 写出最后一个尚未写出的联系人
+         */
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                rowWriter.write(current);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+            rows++;
+        }
+        
+        long getRows() {
+            return rows;
+        }
+    }
+    
+    /**
+     * 导出格式的写出器
+     */
+    private interface RowWriter {
+        
+        void begin() throws IOException;
+        
+        void write(ExportRow row) throws IOException;
+        
+        void end() throws IOException;
+    }
+    
+    /**
+     * CSV写出器（RFC 4180），表头与Excel导出一致，收藏列为"是"/"否"
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        
+        private final Writer writer;
+        
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+        
+        /**
+         * 写出UTF-8 BOM和表头，Excel据BOM识别UTF-8编码，否则中文按本地编码打开为乱码；
+         * 导入CSV时会跳过BOM
+         */
+        @Override
+        public void begin() throws IOException {
+            writer.write('\uFEFF');
+            for (int i = 0; i < ExcelService.EXPORT_HEADERS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(ExcelService.EXPORT_HEADERS[i]);
+            }
+            writer.write("\r\n");
+        }
+        
+        @Override
+        public void write(ExportRow row) throws IOException {
+            writeField(row.name);
+            writer.write(',');
+            writeField(row.company);
+            writer.write(',');
+            writer.write(row.favorite ? "是" : "否");
+            for (ContactMethodType type : METHOD_COLUMNS) {
+                writer.write(',');
+                writeField(row.methodValues(type));
+            }
+            writer.write(',');
+            writeField(row.notes);
+            writer.write("\r\n");
+        }
+        
+        @Override
+        public void end() {
+        }
+        
+        /**
+         * 写出字段，包含逗号、引号或换行时用双引号包围，内部引号转义为两个引号
+         */
+        private void writeField(String value) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+    
+    /**
+     * NDJSON写出器，字段名为英文，收藏为布尔值，缺失的文本字段输出空字符串
+     */
+    private final class JsonRowWriter implements RowWriter {
+        
+        private final Writer writer;
+        private JsonGenerator generator;
+        
+        JsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void begin() throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+        
+        @Override
+        public void write(ExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("name", row.name);
+            generator.writeStringField("company", row.company != null ? row.company : "");
+            generator.writeBooleanField("favorite", row.favorite);
+            for (ContactMethodType type : METHOD_COLUMNS) {
+                generator.writeStringField(type.name().toLowerCase(Locale.ROOT), row.methodValues(type));
+            }
+            generator.writeStringField("notes", row.notes != null ? row.notes : "");
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+    }
+}
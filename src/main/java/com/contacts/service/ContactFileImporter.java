@@ -0,0 +1,712 @@
+package com.contacts.service;
+
+import com.contacts.dto.ImportStats;
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+import com.contacts.util.PinyinUtils;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * CSV和vCard文件导入服务
+ * 
+ * 导入分为三个阶段：
+ * 1. 导入任务线程顺序读取文件，按记录边界（CSV的行、vCard的BEGIN/END块）切分为固定大小的分片
+ * 2. 分片在ForkJoin线程池中并行解析为联系人
+ * 3. 解析结果按分片顺序去重后通过JDBC批处理写入数据库，每个分片一个事务，去重规则见ContactDeduplicator
+ * 
+ * 同时在解析中的分片数有上限，内存占用与文件大小无关
+ * 
+ * CSV首行为表头，按列名匹配字段，支持Excel导出的中文列名和NDJSON导出的英文字段名；
+ * 字段取值规则与Excel导入一致
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+@Timed(value = "contacts.import", histogram = true)
+public class ContactFileImporter {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContactFileImporter.class);
+    
+    /**
+     * 导入文件格式
+     */
+    public enum Format {
+        /** 逗号分隔值，首行为表头 */
+        CSV("csv"),
+        /** vCard 2.1/3.0/4.0 */
+        VCARD("vcf");
+        
+        private final String extension;
+        
+        Format(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() { return extension; }
+        
+        /**
+         * 根据文件名的扩展名判断格式
+         * @param filename 文件名
+         * @return 导入格式，扩展名不支持时返回null
+         */
+        public static Format fromFilename(String filename) {
+            if (filename == null) {
+                return null;
+            }
+            String lower = filename.toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return lower.endsWith(".vcard") ? VCARD : null;
+        }
+    }
+    
+    /**
+     * CSV列名 -> Excel导入列下标，列顺序见ExcelService.EXPORT_HEADERS
+     */
+    private static final Map<String, Integer> CSV_COLUMNS = new HashMap<>();
+    
+    static {
+        String[] englishNames = {"name", "company", "favorite", "phone", "email", "address", "wechat", "qq", "notes"};
+        for (int i = 0; i < ExcelService.EXPORT_HEADERS.length; i++) {
+            CSV_COLUMNS.put(ExcelService.EXPORT_HEADERS[i].toLowerCase(Locale.ROOT), i);
+            CSV_COLUMNS.put(englishNames[i], i);
+        }
+    }
+    
+    @Autowired
+    private ContactDeduplicator contactDeduplicator;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * 每个分片的记录数，也是每批写入数据库的联系人数量
+     */
+    @Value("${contacts.import.batch-size:500}")
+    private int importBatchSize;
+    
+    /**
+     * 解析线程数，0表示使用CPU核数
+     */
+    @Value("${contacts.import.parse-parallelism:0}")
+    private int parseParallelism;
+    
+    private ForkJoinPool parsePool;
+    
+    private final Map<Format, Counter> parsedRows = new EnumMap<>(Format.class);
+    private final Map<Format, Counter> savedRows = new EnumMap<>(Format.class);
+    private final Map<Format, Counter> matchedRows = new EnumMap<>(Format.class);
+    private final Map<Format, Counter> mergedRows = new EnumMap<>(Format.class);
+    private final Map<Format, Counter> failedRows = new EnumMap<>(Format.class);
+    private final Map<Format, DistributionSummary> rowsPerSecond = new EnumMap<>(Format.class);
+    
+    /**
+     * 创建解析线程池并注册导入指标，与Excel导入共用指标名，通过format标签区分
+     */
+    @PostConstruct
+    void init() {
+        int parallelism = parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors();
+        parsePool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("import-parse-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        
+        for (Format format : Format.values()) {
+            String tag = format.getExtension();
+            parsedRows.put(format, rowsCounter("parsed", tag));
+            savedRows.put(format, rowsCounter("saved", tag));
+            matchedRows.put(format, rowsCounter("matched", tag));
+            mergedRows.put(format, rowsCounter("merged", tag));
+            failedRows.put(format, rowsCounter("failed", tag));
+            rowsPerSecond.put(format, DistributionSummary.builder("contacts.import.rows.per.second")
+                .description("每次导入的平均速度")
+                .tags("format", tag)
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+    
+    private Counter rowsCounter(String result, String format) {
+        return Counter.builder("contacts.import.rows")
+            .description("导入处理的行数")
+            .baseUnit("rows")
+            .tag("result", result)
+            .tag("format", format)
+            .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        parsePool.shutdownNow();
+    }
+    
+    /**
+     * 从CSV或vCard文件导入联系人，支持中途取消
+     * 每个分片提交解析前检查一次取消标记，取消时已提交的批次保留，未提交的批次丢弃
+     * 
+     * @param file 导入文件（UTF-8编码）
+     * @param format 文件格式
+     * @param duplicatePolicy 重复行处理方式
+     * @param stats 导入统计信息，导入过程中实时更新
+     * @param cancelled 取消标记，返回true时停止导入
+     * @throws IOException 如果文件无法读取或CSV缺少姓名列
+     * @throws CancellationException 如果导入被取消
+     */
+    public void importFile(File file, Format format, ContactDeduplicator.Policy duplicatePolicy,
+                           ImportStats stats, BooleanSupplier cancelled) throws IOException {
+        stats.start();
+        ContactDeduplicator.Session session = contactDeduplicator.open(duplicatePolicy);
+        Deque<ForkJoinTask<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parsePool.getParallelism() * 2;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Function<String, Contact> parser;
+            if (format == Format.CSV) {
+                String header = nextCsvRecord(reader);
+                int[] columns = csvColumns(header);
+                parser = record -> parseCsvContact(record, columns);
+            } else {
+                parser = ContactFileImporter::parseVCard;
+            }
+            
+            List<String> chunk = new ArrayList<>(importBatchSize);
+            String record;
+            while ((record = format == Format.CSV ? nextCsvRecord(reader) : nextVCard(reader)) != null) {
+                chunk.add(record);
+                if (chunk.size() >= importBatchSize) {
+                    submit(inFlight, chunk, parser, cancelled);
+                    chunk = new ArrayList<>(importBatchSize);
+                    while (inFlight.size() >= maxInFlight) {
+                        save(inFlight.poll(), session, format, stats);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(inFlight, chunk, parser, cancelled);
+            }
+            while (!inFlight.isEmpty()) {
+                save(inFlight.poll(), session, format, stats);
+            }
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+            stats.finish();
+            if (stats.getRowsParsed() > 0) {
+                rowsPerSecond.get(format).record(stats.getRowsPerSecond());
+            }
+            log.info("{}导入完成: {}", format, stats);
+        }
+    }
+    
+    /**
+     * 提交分片解析任务
+     */
+    private void submit(Deque<ForkJoinTask<ParsedChunk>> inFlight, List<String> chunk,
+                        Function<String, Contact> parser, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("导入已取消");
+        }
+        inFlight.add(parsePool.submit(() -> parseChunk(chunk, parser)));
+    }
+    
+    /**
+     * 解析一个分片，无法解析的记录记为失败，没有姓名的记录跳过
+     */
+    private static ParsedChunk parseChunk(List<String> records, Function<String, Contact> parser) {
+        ParsedChunk result = new ParsedChunk(records.size());
+        for (String record : records) {
+            try {
+                Contact contact = parser.apply(record);
+                if (contact != null) {
+                    result.contacts.add(contact);
+                }
+            } catch (RuntimeException e) {
+                result.failed++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 等待分片解析完成并写入数据库
+     * 单个批次失败时回滚该批次并记为失败，不影响后续批次
+     */
+    private void save(ForkJoinTask<ParsedChunk> task, ContactDeduplicator.Session session,
+                      Format format, ImportStats stats) throws IOException {
+        ParsedChunk chunk;
+        try {
+            chunk = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("导入已取消");
+        } catch (ExecutionException e) {
+            throw new IOException("文件解析失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        
+        int parsed = chunk.contacts.size() + chunk.failed;
+        stats.addParsed(parsed);
+        parsedRows.get(format).increment(parsed);
+        if (chunk.failed > 0) {
+            stats.addFailed(chunk.failed);
+            failedRows.get(format).increment(chunk.failed);
+        }
+        if (chunk.contacts.isEmpty()) {
+            return;
+        }
+        
+        try {
+            ContactDeduplicator.Result result = session.save(chunk.contacts);
+            stats.addSaved(result.getInserted());
+            stats.addMatched(result.getMatched());
+            stats.addMerged(result.getMerged());
+            savedRows.get(format).increment(result.getInserted());
+            matchedRows.get(format).increment(result.getMatched());
+            mergedRows.get(format).increment(result.getMerged());
+        } catch (RuntimeException e) {
+            stats.addFailed(chunk.contacts.size());
+            failedRows.get(format).increment(chunk.contacts.size());
+            log.warn("批量写入{}个联系人失败: {}", chunk.contacts.size(), e.getMessage());
+        }
+        log.debug("{}导入进度: 已保存{}行, 重复{}行, 失败{}行, 速度{}行/秒", format,
+            stats.getRowsSaved(), stats.getRowsMatched(), stats.getRowsFailed(), String.format("%.1f", stats.getRowsPerSecond()));
+    }
+    
+    /**
+     * 一个分片的解析结果
+     */
+    private static final class ParsedChunk {
+        
+        final List<Contact> contacts;
+        int failed;
+        
+        ParsedChunk(int size) {
+            this.contacts = new ArrayList<>(size);
+        }
+    }
+    
+    // ==================== CSV ====================
+    
+    /**
+     * 读取一条CSV记录，引号内的换行属于同一条记录
+     * @return 记录原文，文件结束时返回null
+     */
+    static String nextCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        if (line.indexOf('"') < 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        int quotes = countQuotes(line);
+        while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            quotes += countQuotes(line);
+        }
+        return record.toString();
+    }
+    
+    private static int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 将CSV记录拆分为字段（RFC 4180）
+     */
+    static List<String> parseCsvFields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /**
+     * 根据表头计算每个CSV列对应的Excel导入列下标，无法识别的列为-1
+     * @throws IOException 如果文件为空或缺少姓名列
+     */
+    static int[] csvColumns(String header) throws IOException {
+        if (header == null) {
+            throw new IOException("CSV文件为空");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = parseCsvFields(header);
+        int[] columns = new int[names.size()];
+        boolean hasName = false;
+        for (int i = 0; i < columns.length; i++) {
+            Integer column = CSV_COLUMNS.get(names.get(i).trim().toLowerCase(Locale.ROOT));
+            columns[i] = column != null ? column : -1;
+            hasName |= column != null && column == 0;
+        }
+        if (!hasName) {
+            throw new IOException("CSV文件表头缺少姓名列（姓名或name）");
+        }
+        return columns;
+    }
+    
+    private static Contact parseCsvContact(String record, int[] columns) {
+        if (record.trim().isEmpty()) {
+            return null;
+        }
+        List<String> fields = parseCsvFields(record);
+        String[] cells = new String[ExcelService.EXPORT_HEADERS.length];
+        for (int i = 0; i < fields.size() && i < columns.length; i++) {
+            if (columns[i] >= 0) {
+                cells[columns[i]] = fields.get(i).isEmpty() ? null : fields.get(i);
+            }
+        }
+        return ExcelService.buildContact(cells);
+    }
+    
+    // ==================== vCard ====================
+    
+    /**
+     * 读取一条vCard记录（BEGIN:VCARD到END:VCARD之间的行），跳过记录之间的内容
+     * @return 记录原文，文件结束时返回null
+     */
+    static String nextVCard(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null && !line.trim().equalsIgnoreCase("BEGIN:VCARD")) {
+            // 跳过记录之外的内容
+        }
+        if (line == null) {
+            return null;
+        }
+        StringBuilder record = new StringBuilder();
+        while ((line = reader.readLine()) != null && !line.trim().equalsIgnoreCase("END:VCARD")) {
+            record.append(line).append('\n');
+        }
+        return record.toString();
+    }
+    
+    /**
+     * 解析一条vCard记录
+     * 支持FN/N、ORG、TEL、EMAIL、ADR、NOTE、CATEGORIES（包含"收藏"或"favorite"时标记为收藏）、
+     * X-WECHAT、X-QQ和IMPP（qq:、weixin:、wechat:），以及vCard 2.1的QUOTED-PRINTABLE编码
+     * 
+     * @return 联系人对象，没有姓名时返回null
+     */
+    static Contact parseVCard(String record) {
+        String fullName = null;
+        String structuredName = null;
+        Contact contact = new Contact();
+        
+        for (String line : unfold(record)) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String[] head = line.substring(0, colon).split(";");
+            String property = head[0].substring(head[0].lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+            String value = line.substring(colon + 1);
+            
+            List<String> types = new ArrayList<>();
+            Charset charset = StandardCharsets.UTF_8;
+            boolean quotedPrintable = false;
+            for (int i = 1; i < head.length; i++) {
+                String param = head[i].trim();
+                int eq = param.indexOf('=');
+                String paramName = eq < 0 ? "TYPE" : param.substring(0, eq).toUpperCase(Locale.ROOT);
+                String paramValue = eq < 0 ? param : param.substring(eq + 1);
+                if ("ENCODING".equals(paramName) || paramValue.equalsIgnoreCase("QUOTED-PRINTABLE")) {
+                    quotedPrintable |= paramValue.equalsIgnoreCase("QUOTED-PRINTABLE");
+                } else if ("CHARSET".equals(paramName)) {
+                    charset = Charset.forName(paramValue);
+                } else if ("TYPE".equals(paramName)) {
+                    for (String type : paramValue.replace("\"", "").split(",")) {
+                        types.add(type.trim().toUpperCase(Locale.ROOT));
+                    }
+                }
+            }
+            if (quotedPrintable) {
+                value = decodeQuotedPrintable(value, charset);
+            }
+            
+            switch (property) {
+                case "FN":
+                    fullName = unescape(value).trim();
+                    break;
+                case "N":
+                    structuredName = value;
+                    break;
+                case "ORG":
+                    contact.setCompany(blankToNull(unescape(splitComponents(value).get(0))));
+                    break;
+                case "TEL":
+                    // vCard 4.0中电话可以是tel:开头的URI
+                    String phone = value.regionMatches(true, 0, "tel:", 0, 4) ? value.substring(4) : value;
+                    addMethod(contact, ContactMethodType.PHONE, unescape(phone), label(types));
+                    break;
+                case "EMAIL":
+                    addMethod(contact, ContactMethodType.EMAIL, unescape(value), label(types));
+                    break;
+                case "ADR":
+                    addMethod(contact, ContactMethodType.ADDRESS, joinAddress(value), label(types));
+                    break;
+                case "NOTE":
+                    contact.setNotes(blankToNull(unescape(value)));
+                    break;
+                case "CATEGORIES":
+                    String categories = value.toLowerCase(Locale.ROOT);
+                    if (categories.contains("收藏") || categories.contains("favorite") || categories.contains("starred")) {
+                        contact.setFavorite(true);
+                    }
+                    break;
+                case "X-WECHAT":
+                case "X-WEIXIN":
+                    addMethod(contact, ContactMethodType.WECHAT, unescape(value), null);
+                    break;
+                case "X-QQ":
+                    addMethod(contact, ContactMethodType.QQ, unescape(value), null);
+                    break;
+                case "IMPP":
+                    addImpp(contact, unescape(value));
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        String name = fullName != null && !fullName.isEmpty() ? fullName : nameFromStructured(structuredName);
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        contact.setName(name);
+        return contact;
+    }
+    
+    /**
+     * 展开折行：以空格或制表符开头的行接在上一行后面；
+     * QUOTED-PRINTABLE值以"="结尾时下一行也属于同一属性
+     */
+    private static List<String> unfold(String record) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder current = null;
+        for (String line : record.split("\r?\n")) {
+            boolean continuation = !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t');
+            boolean softBreak = current != null && current.length() > 0 && current.charAt(current.length() - 1) == '='
+                && current.toString().toUpperCase(Locale.ROOT).contains("QUOTED-PRINTABLE");
+            if (current != null && softBreak) {
+                current.setLength(current.length() - 1);
+                current.append(line.trim());
+            } else if (current != null && continuation) {
+                current.append(line, 1, line.length());
+            } else {
+                if (current != null) {
+                    lines.add(current.toString());
+                }
+                current = new StringBuilder(line);
+            }
+        }
+        if (current != null) {
+            lines.add(current.toString());
+        }
+        return lines;
+    }
+    
+    /**
+     * 按未转义的分号拆分结构化值
+     */
+    private static List<String> splitComponents(String value) {
+        List<String> components = new ArrayList<>();
+        StringBuilder component = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                component.append(c).append(value.charAt(++i));
+            } else if (c == ';') {
+                components.add(component.toString());
+                component.setLength(0);
+            } else {
+                component.append(c);
+            }
+        }
+        components.add(component.toString());
+        return components;
+    }
+    
+    /**
+     * 去除文本值中的转义（\n、\,、\;、\\）
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+    
+    private static String decodeQuotedPrintable(String value, Charset charset) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '=' && i + 2 < value.length()) {
+                int high = Character.digit(value.charAt(i + 1), 16);
+                int low = Character.digit(value.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    bytes.write(high * 16 + low);
+                    i += 2;
+                    continue;
+                }
+            }
+            bytes.write(c);
+        }
+        return new String(bytes.toByteArray(), charset);
+    }
+    
+    /**
+     * 根据N属性（姓;名;中间名;前缀;后缀）生成姓名，中文姓名按"姓名"顺序，其他按"名 姓"顺序
+     */
+    private static String nameFromStructured(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<String> parts = splitComponents(value);
+        String family = unescape(parts.get(0)).trim();
+        String given = parts.size() > 1 ? unescape(parts.get(1)).trim() : "";
+        if (family.isEmpty() || given.isEmpty()) {
+            return family + given;
+        }
+        boolean chinese = family.codePoints().anyMatch(cp -> Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN);
+        return chinese ? family + given : given + " " + family;
+    }
+    
+    /**
+     * ADR（邮箱;扩展地址;街道;城市;省份;邮编;国家）按中文习惯从大到小拼接
+     */
+    private static String joinAddress(String value) {
+        List<String> parts = new ArrayList<>();
+        for (String part : splitComponents(value)) {
+            parts.add(unescape(part).trim());
+        }
+        StringBuilder address = new StringBuilder();
+        for (int index : new int[]{6, 4, 3, 2, 1, 0, 5}) {
+            if (index < parts.size() && !parts.get(index).isEmpty()) {
+                if (address.length() > 0 && !PinyinUtils.containsChinese(parts.get(index))) {
+                    address.append(' ');
+                }
+                address.append(parts.get(index));
+            }
+        }
+        return address.toString();
+    }
+    
+    private static void addImpp(Contact contact, String value) {
+        int colon = value.indexOf(':');
+        if (colon <= 0) {
+            return;
+        }
+        String scheme = value.substring(0, colon).toLowerCase(Locale.ROOT);
+        String handle = value.substring(colon + 1);
+        if ("qq".equals(scheme)) {
+            addMethod(contact, ContactMethodType.QQ, handle, null);
+        } else if ("weixin".equals(scheme) || "wechat".equals(scheme)) {
+            addMethod(contact, ContactMethodType.WECHAT, handle, null);
+        }
+    }
+    
+    /**
+     * 将TYPE参数映射为联系方式标签
+     */
+    private static String label(List<String> types) {
+        if (types.contains("CELL")) {
+            return "手机";
+        }
+        if (types.contains("WORK")) {
+            return "工作";
+        }
+        if (types.contains("HOME")) {
+            return "家庭";
+        }
+        return null;
+    }
+    
+    private static void addMethod(Contact contact, ContactMethodType type, String value, String label) {
+        String trimmed = value.trim();
+        if (!trimmed.isEmpty()) {
+            contact.addContactMethod(new ContactMethod(type, trimmed, label));
+        }
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
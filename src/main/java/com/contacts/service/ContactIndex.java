@@ -0,0 +1,34 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactDocument;
+
+/**
+ * 联系人内存索引接口
+ * 由ContactIndexer统一在事务提交后调用，实现类无需关心事务
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public interface ContactIndex {
+    
+    /**
+     * 索引或重新索引联系人
+     * @param document 联系人快照
+     */
+    void put(ContactDocument document);
+    
+    /**
+     * 从索引中移除联系人
+     * @param id 联系人ID
+     */
+    void delete(Long id);
+    
+    /**
+     * 更新联系人的收藏状态，不重新分析联系人的其他字段
+     * 默认不做任何处理，排序或结果依赖收藏状态的索引需要覆盖
+     * @param id 联系人ID
+     * @param favorite 是否收藏
+     */
+    default void updateFavorite(Long id, boolean favorite) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactDocument;
+import com.contacts.entity.Contact;
+import com.contacts.repository.ContactRepository;
+import com.contacts.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 联系人索引维护服务
+ * 统一维护所有内存索引（搜索索引、自动补全索引等）：
+ * 应用启动完成后从数据库全量构建，之后随联系人的增删改增量更新，
+ * 在事务中发生的更新会在事务提交后才写入索引
+ * 
+ * 全量构建期间读到的快照可能早于并发提交的增删改，构建期间的增量更新先缓存，
+ * 全量写入完成后按提交顺序重放，已删除或已修改的联系人不会被旧快照恢复
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactIndexer {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContactIndexer.class);
+    
+    /**
+     * 全量构建时每批读取的联系人数量
+     */
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    
+    @Autowired
+    private ContactRepository contactRepository;
+    
+    @Autowired
+    private List<ContactIndex> indexes;
+    
+    private volatile boolean ready;
+    
+    /**
+     * 全量构建期间缓存的增量更新，不在构建时为null
+     */
+    private List<Runnable> pending;
+    
+    /**
+     * 增量更新持有读锁，开始和结束缓存持有写锁，增量更新之间互不阻塞
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * 应用启动完成后从数据库全量构建所有索引
+     * 构建完成（包括重放构建期间的增量更新）后才标记为就绪
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        long lastId = 0L;
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            while (true) {
+                List<Long> ids = contactRepository.findIdsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (Contact contact : contactRepository.findAllWithMethodsByIdIn(ids)) {
+                    ContactDocument document = ContactDocument.of(contact);
+                    indexes.forEach(index -> index.put(document));
+                    count++;
+                }
+                lastId = ids.get(ids.size() - 1);
+            }
+        } finally {
+            replayPending();
+        }
+        log.info("联系人索引构建完成: {}个联系人, 耗时{}ms", count, System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * 按缓存顺序重放全量构建期间的增量更新，之后的更新直接写入索引
+     */
+    private void replayPending() {
+        lock.writeLock().lock();
+        try {
+            pending.forEach(Runnable::run);
+            pending = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 写入一次增量更新，全量构建期间先缓存
+     */
+    private void apply(Runnable update) {
+        lock.readLock().lock();
+        try {
+            if (pending != null) {
+                synchronized (pending) {
+                    pending.add(update);
+                }
+            } else {
+                update.run();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 判断索引是否已构建完成
+     * @return 构建完成返回true
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * 索引或重新索引联系人
+     * 立即对联系人做快照，事务提交后写入索引
+     * @param contact 联系人对象，必须已有ID
+     */
+    public void index(Contact contact) {
+        ContactDocument document = ContactDocument.of(contact);
+        TransactionUtils.afterCommit(() -> apply(() -> indexes.forEach(index -> index.put(document))));
+    }
+    
+    /**
+     * 从所有索引中移除联系人
+     * @param id 联系人ID
+     */
+    public void remove(Long id) {
+        TransactionUtils.afterCommit(() -> apply(() -> indexes.forEach(index -> index.delete(id))));
+    }
+    
+    /**
+     * 更新联系人在所有索引中的收藏状态，用于只修改了收藏状态、没有加载联系人的场景
+     * @param ids 联系人ID列表，索引中不存在的ID忽略
+     * @param favorite 是否收藏
+     */
+    public void updateFavorite(Collection<Long> ids, boolean favorite) {
+        List<Long> snapshot = new ArrayList<>(ids);
+        TransactionUtils.afterCommit(() -> apply(() -> {
+            for (ContactIndex index : indexes) {
+                snapshot.forEach(id -> index.updateFavorite(id, favorite));
+            }
+        }));
+    }
+}
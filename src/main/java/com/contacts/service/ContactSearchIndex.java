@@ -0,0 +1,338 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactDocument;
+import com.contacts.util.PinyinUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 联系人全文搜索索引
+ * 在内存中维护姓名、公司和联系方式值的N-gram倒排索引，
+ * 搜索时通过索引查找候选联系人，不再对数据表做LIKE全表扫描
+ * 
+ * 姓名和公司中包含汉字时，额外索引其全拼和拼音首字母，
+ * 因此"sunxuhang"、"sxh"等拼音输入也能匹配到"孙煦航"；
+ * 汉字本身按二字、三字片段索引，覆盖中文子串搜索
+ * 
+ * 结果超过上限时按列表的排序（收藏优先、姓名、ID）保留排在最前的联系人，
+ * 因此索引同时保存每个联系人的收藏状态和姓名
+ * 
+ * 索引的构建和增量更新由ContactIndexer统一调度
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactSearchIndex implements ContactIndex {
+    
+    /**
+     * 最短索引片段长度，更短的关键词无法通过索引查询
+     */
+    private static final int MIN_GRAM = 2;
+    
+    /**
+     * 最长索引片段长度，更长的关键词拆分为多个片段求交集
+     */
+    private static final int MAX_GRAM = 3;
+    
+    /**
+     * 倒排表：片段 -> 包含该片段的联系人ID集合
+     */
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    
+    /**
+     * 正排表：联系人ID -> 已索引的字段值（小写，含拼音字段）
+     */
+    private final Map<Long, List<String>> documents = new HashMap<>();
+    
+    /**
+     * 排序键：联系人ID -> 收藏状态和姓名，用于在截断前选出排在最前的结果
+     */
+    private final Map<Long, SortKey> sortKeys = new HashMap<>();
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * 判断关键词能否通过索引查询
+     * @param keyword 搜索关键词
+     * @return 关键词长度不小于最短片段长度时返回true
+     */
+    public boolean supports(String keyword) {
+        return keyword != null && normalize(keyword).length() >= MIN_GRAM;
+    }
+    
+    /**
+     * 搜索包含关键词的联系人
+     * 匹配规则与姓名、公司、联系方式值的子串匹配（忽略大小写）一致
+     * 匹配数超过limit时，返回按收藏优先、姓名、ID排序后的前limit个
+     * 
+     * @param keyword 搜索关键词，长度不小于最短片段长度
+     * @param limit 最多返回的联系人数量
+     * @return 匹配的联系人ID列表，按上述顺序排列
+     */
+    public List<Long> search(String keyword, int limit) {
+        String query = normalize(keyword);
+        if (query.length() < MIN_GRAM) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            if (query.length() <= MAX_GRAM) {
+                // 关键词本身就是一个索引片段，倒排表即为精确结果
+                TopIds top = new TopIds(limit);
+                for (Long id : postings.getOrDefault(query, Collections.emptySet())) {
+                    top.offer(id);
+                }
+                return top.toList();
+            }
+            
+            // 按倒排表从短到长求交集，再用原文校验，排除片段都命中但不连续的情况
+            List<Set<Long>> candidates = new ArrayList<>();
+            for (String gram : grams(query, MAX_GRAM)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                candidates.add(ids);
+            }
+            candidates.sort(Comparator.comparingInt(Set::size));
+            
+            TopIds top = new TopIds(limit);
+            for (Long id : candidates.get(0)) {
+                if (containsAll(candidates, id) && matches(documents.get(id), query)) {
+                    top.offer(id);
+                }
+            }
+            return top.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // ==================== 索引维护 ====================
+    
+    @Override
+    public void put(ContactDocument contact) {
+        Long id = contact.getId();
+        List<String> document = toDocument(contact);
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            documents.put(id, document);
+            sortKeys.put(id, new SortKey(id, contact.isFavorite(), contact.getName()));
+            for (String gram : documentGrams(document)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            List<String> document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            sortKeys.remove(id);
+            for (String gram : documentGrams(document)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void updateFavorite(Long id, boolean favorite) {
+        lock.writeLock().lock();
+        try {
+            SortKey key = sortKeys.get(id);
+            if (key != null && key.favorite != favorite) {
+                sortKeys.put(id, new SortKey(id, favorite, key.name));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // ==================== 排序 ====================
+    
+    /**
+     * 联系人在列表中的排序键：收藏降序、姓名升序、ID升序
+     */
+    private static final class SortKey implements Comparable<SortKey> {
+        
+        private final long id;
+        private final boolean favorite;
+        private final String name;
+        
+        SortKey(long id, boolean favorite, String name) {
+            this.id = id;
+            this.favorite = favorite;
+            this.name = name != null ? name : "";
+        }
+        
+        @Override
+        public int compareTo(SortKey other) {
+            if (favorite != other.favorite) {
+                return favorite ? -1 : 1;
+            }
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+    }
+    
+    /**
+     * 保留排序最靠前的limit个联系人ID
+     * 用大小为limit的堆，堆顶是已保留结果中排在最后的一个
+     */
+    private final class TopIds {
+        
+        private final int limit;
+        private final PriorityQueue<SortKey> heap;
+        
+        TopIds(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, Comparator.reverseOrder());
+        }
+        
+        void offer(Long id) {
+            SortKey key = sortKeys.get(id);
+            if (key == null || limit <= 0) {
+                return;
+            }
+            if (heap.size() < limit) {
+                heap.add(key);
+            } else if (key.compareTo(heap.peek()) < 0) {
+                heap.poll();
+                heap.add(key);
+            }
+        }
+        
+        List<Long> toList() {
+            List<SortKey> keys = new ArrayList<>(heap);
+            Collections.sort(keys);
+            List<Long> result = new ArrayList<>(keys.size());
+            for (SortKey key : keys) {
+                result.add(key.id);
+            }
+            return result;
+        }
+    }
+    
+    // ==================== 文本处理 ====================
+    
+    /**
+     * 提取联系人需要索引的字段值
+     * 姓名和公司额外生成拼音字段，姓名的第一个字是多音字姓氏时再生成按姓氏读音的拼音字段
+     */
+    private List<String> toDocument(ContactDocument contact) {
+        List<String> document = new ArrayList<>();
+        addChineseField(document, contact.getName());
+        addSurnameField(document, contact.getName());
+        addChineseField(document, contact.getCompany());
+        for (ContactDocument.MethodValue method : contact.getMethods()) {
+            addField(document, method.getValue());
+        }
+        return document;
+    }
+    
+    private void addField(List<String> document, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            document.add(normalize(value));
+        }
+    }
+    
+    private void addChineseField(List<String> document, String value) {
+        addField(document, value);
+        if (PinyinUtils.containsChinese(value)) {
+            addField(document, PinyinUtils.toPinyin(value));
+            addField(document, PinyinUtils.toInitials(value));
+        }
+    }
+    
+    private void addSurnameField(List<String> document, String name) {
+        if (PinyinUtils.containsChinese(name)) {
+            String pinyin = PinyinUtils.toNamePinyin(name);
+            if (!pinyin.equals(PinyinUtils.toPinyin(name))) {
+                addField(document, pinyin);
+            }
+            String initials = PinyinUtils.toNameInitials(name);
+            if (!initials.equals(PinyinUtils.toInitials(name))) {
+                addField(document, initials);
+            }
+        }
+    }
+    
+    private String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * 获取文档所有字段的全部索引片段（去重）
+     */
+    private Set<String> documentGrams(List<String> document) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String field : document) {
+            for (int size = MIN_GRAM; size <= MAX_GRAM; size++) {
+                result.addAll(grams(field, size));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 将文本切分为指定长度的连续片段
+     */
+    private List<String> grams(String text, int size) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + size <= text.length(); i++) {
+            result.add(text.substring(i, i + size));
+        }
+        return result;
+    }
+    
+    private boolean containsAll(List<Set<Long>> candidates, Long id) {
+        for (int i = 1; i < candidates.size(); i++) {
+            if (!candidates.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean matches(List<String> document, String query) {
+        if (document == null) {
+            return false;
+        }
+        for (String field : document) {
+            if (field.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
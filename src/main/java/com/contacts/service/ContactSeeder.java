@@ -0,0 +1,97 @@
+package com.contacts.service;
+
+import com.contacts.util.ContactDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量测试数据填充服务
+ * 将生成的联系人按批次分配给多个线程，每批一个事务通过JDBC批处理写入，
+ * 用于快速构建百万级数据集做容量测试
+ * 
+ * 填充时不更新内存索引，需在填充后重建索引（应用启动完成时会自动重建）
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactSeeder {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContactSeeder.class);
+    
+    @Autowired
+    private ContactBatchWriter contactBatchWriter;
+    
+    /**
+     * 随机种子，相同种子和数量生成相同数据集
+     */
+    @Value("${contacts.seed.random-seed:20240308}")
+    private long randomSeed;
+    
+    /**
+     * 并行写入的线程数
+     */
+    @Value("${contacts.seed.threads:4}")
+    private int threads;
+    
+    /**
+     * 每批写入的联系人数量（每批一个事务）
+     */
+    @Value("${contacts.seed.batch-size:5000}")
+    private int batchSize;
+    
+    /**
+     * 生成并写入指定数量的联系人
+     * 
+     * @param count 联系人数量
+     * @return 写入的联系人数量
+     * @throws RuntimeException 如果某一批写入失败
+     */
+    public long seed(long count) {
+        long start = System.currentTimeMillis();
+        ContactDataGenerator generator = new ContactDataGenerator(randomSeed);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "contact-seeder-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        long inserted = 0;
+        try {
+            List<Future<Integer>> batches = new ArrayList<>();
+            for (long first = 0; first < count; first += batchSize) {
+                long firstIndex = first;
+                int size = (int) Math.min(batchSize, count - first);
+                batches.add(executor.submit(
+                    () -> contactBatchWriter.insertAllWithoutIndexing(generator.generate(firstIndex, size))));
+            }
+            for (Future<Integer> batch : batches) {
+                inserted += batch.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("填充测试数据被中断", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("填充测试数据失败: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        log.info("测试数据填充完成: {}个联系人, {}个线程, 耗时{}ms, {}行/秒",
+            inserted, threads, elapsed, inserted * 1000 / elapsed);
+        return inserted;
+    }
+}
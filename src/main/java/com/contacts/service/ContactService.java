@@ -1,58 +1,171 @@
 package com.contacts.service;
 
+import com.contacts.dto.ContactBatchRequest;
+import com.contacts.dto.ContactBatchResult;
+import com.contacts.dto.ContactCursor;
+import com.contacts.dto.ContactMethodChanges;
+import com.contacts.dto.ContactPage;
+import com.contacts.dto.ContactSummary;
 import com.contacts.entity.Contact;
 import com.contacts.entity.ContactMethod;
 import com.contacts.entity.ContactMethodType;
 import com.contacts.repository.ContactRepository;
 import com.contacts.repository.ContactMethodRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 联系人业务逻辑层
  * 提供联系人的增删改查和收藏等业务功能
+ * 所有公开方法的耗时记录在contacts.service指标中（按class、method标签区分）
  * 
  * @author Team
  * @version 1.0
  */
 @Service
 @Transactional
+@Timed(value = "contacts.service", histogram = true)
 public class ContactService {
     
+    /**
+     * 联系人列表每页数量上限
+     */
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private ContactRepository contactRepository;
     
     @Autowired
     private ContactMethodRepository contactMethodRepository;
     
+    @Autowired
+    private ContactIndexer contactIndexer;
+    
+    @Autowired
+    private ContactSearchIndex contactSearchIndex;
+    
+    @Autowired
+    private ContactCache contactCache;
+    
+    @Autowired
+    private ContactBatchWriter contactBatchWriter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * 单次搜索最多返回的联系人数量
+     */
+    @Value("${contacts.search.max-results:1000}")
+    private int searchMaxResults;
+    
+    /**
+     * 联系人列表默认每页数量
+     */
+    @Value("${contacts.list.page-size:50}")
+    private int defaultPageSize;
+    
+    /**
+     * 单次批量操作的操作数上限
+     */
+    @Value("${contacts.batch.max-operations:1000}")
+    private int batchMaxOperations;
+    
     /**
      * 获取所有联系人
      * 收藏的联系人排在前面，按姓名升序排列
      * @return 联系人列表
      */
+    @Transactional(readOnly = true)
     public List<Contact> getAllContacts() {
         return contactRepository.findAllByOrderByFavoriteDescNameAsc();
     }
     
     /**
-     * 获取所有已收藏的联系人
-     * @return 收藏的联系人列表
+     * 分页获取联系人摘要（键集分页）
+     * 排序与getAllContacts一致，每页耗时与联系人总数无关
+     * @param cursor 上一页返回的游标，获取第一页时传null
+     * @param size 每页数量，为空时使用默认值
+     * @return 本页联系人摘要和下一页游标
+     * @throws IllegalArgumentException 如果游标格式不正确
      */
-    public List<Contact> getFavoriteContacts() {
-        return contactRepository.findByFavoriteTrue();
+    @Transactional(readOnly = true)
+    public ContactPage<ContactSummary> getContactsPage(String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, MAX_PAGE_SIZE);
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<ContactSummary> contacts;
+        if (cursor == null || cursor.isEmpty()) {
+            contacts = contactRepository.findFirstPage(limit);
+        } else {
+            ContactCursor after = ContactCursor.decode(cursor);
+            if (after.isFavorite()) {
+                // 两次索引范围查询：先取剩余的收藏联系人，不足一页时从未收藏联系人开头补足
+                contacts = new ArrayList<>(contactRepository.findPageAfterFavorite(after.getName(), after.getId(), limit));
+                if (contacts.size() <= pageSize) {
+                    contacts.addAll(contactRepository.findFirstNonFavoritePage(
+                        PageRequest.of(0, pageSize + 1 - contacts.size())));
+                }
+            } else {
+                contacts = contactRepository.findPageAfterNonFavorite(after.getName(), after.getId(), limit);
+            }
+        }
+        
+        String nextCursor = null;
+        if (contacts.size() > pageSize) {
+            contacts = new ArrayList<>(contacts.subList(0, pageSize));
+            ContactSummary last = contacts.get(pageSize - 1);
+            nextCursor = new ContactCursor(Boolean.TRUE.equals(last.getFavorite()), last.getName(), last.getId()).encode();
+        }
+        return new ContactPage<>(contacts, nextCursor);
     }
     
     /**
-     * 根据ID获取联系人
+     * 获取所有已收藏的联系人摘要
+     * 结果会被缓存，返回的列表只读
+     * @return 收藏的联系人摘要列表
+     */
+    @Transactional(readOnly = true)
+    public List<ContactSummary> getFavoriteContacts() {
+        return contactCache.getFavorites(
+            () -> Collections.unmodifiableList(contactRepository.findFavoriteSummaries()));
+    }
+    
+    /**
+     * 根据ID获取联系人（包含联系方式）
+     * 结果会被缓存，返回的联系人只读，修改请使用updateContact等方法
      * @param id 联系人ID
      * @return 联系人Optional对象
      */
+    @Transactional(readOnly = true)
     public Optional<Contact> getContactById(Long id) {
-        return contactRepository.findById(id);
+        return contactCache.getContact(id, key -> {
+            Contact contact = contactRepository.findWithMethodsById(key).orElse(null);
+            if (contact != null) {
+                entityManager.detach(contact);
+            }
+            return contact;
+        });
     }
     
     /**
@@ -61,7 +174,10 @@ public class ContactService {
      * @return 保存后的联系人对象
      */
     public Contact createContact(Contact contact) {
-        return contactRepository.save(contact);
+        Contact saved = contactRepository.save(contact);
+        contactIndexer.index(saved);
+        contactCache.evict(saved);
+        return saved;
     }
     
     /**
@@ -80,21 +196,55 @@ public class ContactService {
         contact.setNotes(contactDetails.getNotes());
         contact.setFavorite(contactDetails.getFavorite());
         
-        return contactRepository.save(contact);
+        Contact saved = contactRepository.save(contact);
+        contactIndexer.index(saved);
+        contactCache.evict(saved);
+        return saved;
     }
     
     /**
      * 切换联系人的收藏状态
+     * 由一条UPDATE语句在数据库中取反，再读取更新后的摘要，不加载联系人实体和联系方式
      * @param id 联系人ID
-     * @return 更新后的联系人对象
+     * @return 更新后的联系人摘要
      * @throws RuntimeException 如果联系人不存在
      */
-    public Contact toggleFavorite(Long id) {
-        Contact contact = contactRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("联系人不存在，ID: " + id));
+    public ContactSummary toggleFavorite(Long id) {
+        if (contactRepository.toggleFavorite(id, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("联系人不存在，ID: " + id);
+        }
+        // 本事务持有该行的写锁，读到的就是本次写入的状态
+        ContactSummary contact = contactRepository.findSummariesByIdIn(Collections.singletonList(id)).get(0);
+        boolean favorite = Boolean.TRUE.equals(contact.getFavorite());
+        contactIndexer.updateFavorite(Collections.singletonList(id), favorite);
+        contactCache.evict(id, favorite);
+        return contact;
+    }
+    
+    /**
+     * 批量收藏或取消收藏联系人
+     * 一条UPDATE语句完成，不加载联系人实体；不存在或状态未变化的联系人忽略
+     * @param ids 联系人ID列表
+     * @param favorite 是否收藏
+     * @return 状态实际发生变化的联系人数量
+     * @throws IllegalArgumentException 如果ID数量超过批量操作上限
+     */
+    public int setFavorite(List<Long> ids, boolean favorite) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > batchMaxOperations) {
+            throw new IllegalArgumentException("单次批量操作数不能超过" + batchMaxOperations);
+        }
+        if (distinct.isEmpty()) {
+            return 0;
+        }
         
-        contact.setFavorite(!contact.getFavorite());
-        return contactRepository.save(contact);
+        int updated = contactRepository.updateFavorite(distinct, favorite, LocalDateTime.now());
+        contactIndexer.updateFavorite(distinct, favorite);
+        for (Long id : distinct) {
+            contactCache.evict(id, favorite);
+        }
+        return updated;
     }
     
     /**
@@ -104,24 +254,36 @@ public class ContactService {
      * @throws RuntimeException 如果联系人不存在
      */
     public void deleteContact(Long id) {
-        if (contactRepository.existsById(id)) {
-            contactRepository.deleteById(id);
-        } else {
-            throw new RuntimeException("联系人不存在，ID: " + id);
-        }
+        Contact contact = contactRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("联系人不存在，ID: " + id));
+        
+        contactRepository.delete(contact);
+        contactIndexer.remove(id);
+        contactCache.evict(contact);
     }
     
     /**
-     * 搜索联系人
+     * 搜索联系人摘要
      * 在姓名、公司、联系方式中搜索关键词
+     * 优先通过内存搜索索引查找，索引未就绪或关键词过短时回退到数据库查询
      * @param keyword 搜索关键词
-     * @return 匹配的联系人列表
+     * @return 匹配的联系人摘要列表
      */
-    public List<Contact> searchContacts(String keyword) {
+    @Transactional(readOnly = true)
+    public List<ContactSummary> searchContacts(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return getAllContacts();
+            return contactRepository.findAllSummaries();
+        }
+        
+        String trimmed = keyword.trim();
+        if (contactIndexer.isReady() && contactSearchIndex.supports(trimmed)) {
+            List<Long> ids = contactSearchIndex.search(trimmed, searchMaxResults);
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return contactRepository.findSummariesByIdIn(ids);
         }
-        return contactRepository.searchContacts(keyword.trim());
+        return contactRepository.searchSummaries(trimmed);
     }
     
     /**
@@ -140,36 +302,434 @@ public class ContactService {
         ContactMethod method = new ContactMethod(type, value, label);
         contact.addContactMethod(method);
         contactRepository.save(contact);
+        contactIndexer.index(contact);
+        contactCache.evict(contact);
         
         return method;
     }
     
     /**
      * 删除联系方式
+     * 从所属联系人中移除后由级联删除，并重新索引该联系人
      * @param methodId 联系方式ID
      */
     public void removeContactMethod(Long methodId) {
-        contactMethodRepository.deleteById(methodId);
+        ContactMethod method = contactMethodRepository.findById(methodId).orElse(null);
+        if (method == null) {
+            return;
+        }
+        
+        Contact contact = method.getContact();
+        if (contact == null) {
+            contactMethodRepository.delete(method);
+            return;
+        }
+        contact.removeContactMethod(method);
+        contactRepository.save(contact);
+        contactIndexer.index(contact);
+        contactCache.evict(contact);
     }
     
     /**
      * 保存联系人及其所有联系方式
-     * 会先清除旧的联系方式，再添加新的
-     * @param contact 联系人对象
-     * @param methods 联系方式列表
+     * 将提交的联系方式与已有的逐条对比，只写入有变化的行：
+     * 先按ID匹配，再按类型、值、标签完全相同匹配；匹配到的已有联系方式原地更新（没有变化时不产生UPDATE），
+     * 未匹配的提交项作为新联系方式插入，未匹配的已有联系方式删除；
+     * 联系方式有变化时同时刷新联系人的更新时间，使联系人版本号递增
+     * @param contact 联系人对象，已有联系人需处于持久化上下文中
+     * @param methods 联系方式列表，值为空的忽略
      * @return 保存后的联系人对象
      */
     public Contact saveContactWithMethods(Contact contact, List<ContactMethod> methods) {
-        // 清除旧的联系方式
-        contact.getContactMethods().clear();
+        ContactMethodChanges changes = diffMethods(contact, methods);
+        applyMethodChanges(contact, changes);
+        if (!changes.isEmpty() && contact.getId() != null) {
+            contact.setUpdatedTime(LocalDateTime.now());
+        }
         
-        // 添加新的联系方式
+        Contact saved = contactRepository.save(contact);
+        contactIndexer.index(saved);
+        contactCache.evict(saved);
+        return saved;
+    }
+    
+    /**
+     * 将提交的联系方式与联系人已有的联系方式匹配，得到需要新增、修改和删除的联系方式
+     * 先按ID匹配（不属于该联系人的ID视为新联系方式），没有ID的再按内容匹配；
+     * 匹配到的已有联系方式直接写入新值，联系方式集合本身不修改
+     * @param contact 联系人
+     * @param methods 提交的完整联系方式列表，值为空的忽略
+     * @return 联系方式的变化
+     */
+    private ContactMethodChanges diffMethods(Contact contact, List<ContactMethod> methods) {
+        ContactMethodChanges changes = new ContactMethodChanges(contact);
+        List<ContactMethod> unmatched = new ArrayList<>(contact.getContactMethods());
+        Map<Long, ContactMethod> byId = new LinkedHashMap<>();
+        for (ContactMethod method : unmatched) {
+            if (method.getId() != null) {
+                byId.put(method.getId(), method);
+            }
+        }
+        
+        List<ContactMethod> incoming = new ArrayList<>();
         for (ContactMethod method : methods) {
-            if (method.getMethodValue() != null && !method.getMethodValue().trim().isEmpty()) {
-                contact.addContactMethod(method);
+            if (method.getMethodValue() == null || method.getMethodValue().trim().isEmpty()) {
+                continue;
+            }
+            ContactMethod existing = method.getId() != null ? byId.remove(method.getId()) : null;
+            if (existing != null) {
+                unmatched.remove(existing);
+                if (copyMethod(method, existing)) {
+                    changes.getUpdated().add(existing);
+                }
+            } else {
+                method.setId(null);
+                incoming.add(method);
             }
         }
         
-        return contactRepository.save(contact);
+        for (ContactMethod method : incoming) {
+            ContactMethod existing = findSameMethod(unmatched, method);
+            if (existing != null) {
+                unmatched.remove(existing);
+            } else {
+                changes.getAdded().add(method);
+            }
+        }
+        changes.getRemoved().addAll(unmatched);
+        return changes;
+    }
+    
+    /**
+     * 将新增和删除的联系方式应用到联系人的联系方式集合
+     */
+    private void applyMethodChanges(Contact contact, ContactMethodChanges changes) {
+        changes.getAdded().forEach(contact::addContactMethod);
+        changes.getRemoved().forEach(contact::removeContactMethod);
+    }
+    
+    /**
+     * 将提交的联系方式写入已有联系方式，只修改不同的字段
+     * @return 有字段被修改时返回true
+     */
+    private boolean copyMethod(ContactMethod source, ContactMethod target) {
+        boolean changed = false;
+        if (source.getType() != target.getType()) {
+            target.setType(source.getType());
+            changed = true;
+        }
+        if (!Objects.equals(source.getMethodValue(), target.getMethodValue())) {
+            target.setMethodValue(source.getMethodValue());
+            changed = true;
+        }
+        if (!sameText(source.getLabel(), target.getLabel())) {
+            target.setLabel(source.getLabel());
+            changed = true;
+        }
+        return changed;
+    }
+    
+    /**
+     * 在候选列表中查找类型、值、标签都相同的联系方式
+     * @return 找到的联系方式，没有时返回null
+     */
+    private ContactMethod findSameMethod(List<ContactMethod> candidates, ContactMethod method) {
+        for (ContactMethod candidate : candidates) {
+            if (candidate.getType() == method.getType()
+                    && Objects.equals(candidate.getMethodValue(), method.getMethodValue())
+                    && sameText(candidate.getLabel(), method.getLabel())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 比较两个可选文本，null与空字符串视为相同
+     */
+    private boolean sameText(String a, String b) {
+        return (a == null ? "" : a).equals(b == null ? "" : b);
+    }
+    
+    /**
+     * 更新联系人信息及其所有联系方式
+     * 在事务内重新加载联系人后修改，不修改缓存中的对象；
+     * 只设置有变化的字段（setter会刷新更新时间），没有任何变化时不产生UPDATE
+     * @param id 联系人ID
+     * @param contactDetails 更新的联系人信息，版本号不为空时必须与当前版本一致
+     * @param methods 联系方式列表
+     * @return 更新后的联系人对象
+     * @throws RuntimeException 如果联系人不存在
+     * @throws ObjectOptimisticLockingFailureException 如果联系人已被其他请求修改
+     */
+    public Contact updateContactWithMethods(Long id, Contact contactDetails, List<ContactMethod> methods) {
+        Contact contact = contactRepository.findWithMethodsById(id)
+            .orElseThrow(() -> new RuntimeException("联系人不存在，ID: " + id));
+        
+        checkVersion(contact, contactDetails.getVersion());
+        applyDetails(contact, contactDetails.getName(), contactDetails.getCompany(),
+            contactDetails.getNotes(), contactDetails.getFavorite());
+        return saveContactWithMethods(contact, methods);
+    }
+    
+    /**
+     * 按条件更新联系人（乐观锁）
+     * 只修改不为null的字段，methods为null时不修改联系方式；
+     * 版本号不一致时立即失败，不等待也不持有行锁，更新语句同样以版本号为条件，
+     * 检查之后、提交之前被其他请求修改时在写入时失败
+     * 
+     * @param id 联系人ID
+     * @param expectedVersion 客户端读取时的版本号，为null时不检查
+     * @param data 要修改的字段
+     * @return 更新后的联系人，联系人不存在时为空
+     * @throws IllegalArgumentException 如果字段校验不通过
+     * @throws ObjectOptimisticLockingFailureException 如果联系人已被其他请求修改
+     */
+    public Optional<Contact> updateContact(Long id, Long expectedVersion, ContactBatchRequest.ContactData data) {
+        Contact contact = contactRepository.findWithMethodsById(id).orElse(null);
+        if (contact == null) {
+            return Optional.empty();
+        }
+        checkVersion(contact, expectedVersion);
+        String error = validate(data);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        
+        applyDetails(contact,
+            data.getName() != null ? data.getName().trim() : contact.getName(),
+            data.getCompany() != null ? data.getCompany() : contact.getCompany(),
+            data.getNotes() != null ? data.getNotes() : contact.getNotes(),
+            data.getFavorite() != null ? data.getFavorite() : contact.getFavorite());
+        List<ContactMethod> methods = data.getMethods() != null
+            ? toMethods(data.getMethods()) : new ArrayList<>(contact.getContactMethods());
+        saveContactWithMethods(contact, methods);
+        
+        // 立即写入，返回递增后的版本号，冲突也在这里抛出
+        contactRepository.flush();
+        return Optional.of(contact);
+    }
+    
+    /**
+     * 检查客户端提交的版本号与当前版本号是否一致
+     * @throws ObjectOptimisticLockingFailureException 如果不一致
+     */
+    private void checkVersion(Contact contact, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(contact.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Contact.class, contact.getId());
+        }
+    }
+    
+    /**
+     * 将联系人字段设置为给定的值，只设置有变化的字段（setter会刷新更新时间）
+     */
+    private void applyDetails(Contact contact, String name, String company, String notes, Boolean favorite) {
+        if (!Objects.equals(contact.getName(), name)) {
+            contact.setName(name);
+        }
+        if (!sameText(contact.getCompany(), company)) {
+            contact.setCompany(company);
+        }
+        if (!sameText(contact.getNotes(), notes)) {
+            contact.setNotes(notes);
+        }
+        if (!Objects.equals(contact.getFavorite(), favorite)) {
+            contact.setFavorite(favorite);
+        }
+    }
+    
+    /**
+     * 批量创建、更新、收藏和删除联系人
+     * 所有操作在一个事务中按创建、更新、收藏、删除的顺序执行，每类操作使用一次JDBC批处理写入；
+     * 校验不通过、联系人不存在或读取后已被其他请求修改（版本冲突）的操作记为失败，不影响其他操作；
+     * 更新联系方式时与已有联系方式逐条比较，只写入新增、修改和删除的行
+     * 
+     * @param request 批量操作请求
+     * @return 每个操作的结果
+     * @throws IllegalArgumentException 如果操作数超过上限
+     */
+    public ContactBatchResult applyBatch(ContactBatchRequest request) {
+        if (request.size() > batchMaxOperations) {
+            throw new IllegalArgumentException("单次批量操作数不能超过" + batchMaxOperations);
+        }
+        ContactBatchResult result = new ContactBatchResult();
+        
+        // 创建
+        List<Contact> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        for (int i = 0; i < request.getCreate().size(); i++) {
+            ContactBatchRequest.ContactData data = request.getCreate().get(i);
+            String error = data.getName() == null ? "姓名不能为空" : validate(data);
+            if (error != null) {
+                result.failed("create", i, null, error);
+                continue;
+            }
+            Contact contact = new Contact();
+            applyChanges(contact, data);
+            if (data.getMethods() != null) {
+                for (ContactMethod method : toMethods(data.getMethods())) {
+                    method.setId(null);
+                    contact.addContactMethod(method);
+                }
+            }
+            created.add(contact);
+            createdIndexes.add(i);
+        }
+        contactBatchWriter.insertAll(created);
+        for (int k = 0; k < created.size(); k++) {
+            result.succeeded("create", createdIndexes.get(k), created.get(k).getId());
+        }
+        
+        // 一次查询加载更新、收藏、删除涉及的联系人，脱离持久化上下文后修改
+        Set<Long> ids = new LinkedHashSet<>(request.getDelete());
+        request.getUpdate().forEach(data -> ids.add(data.getId()));
+        request.getFavorite().forEach(change -> ids.add(change.getId()));
+        ids.remove(null);
+        Map<Long, Contact> existing = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            for (Contact contact : contactRepository.findAllWithMethodsByIdIn(new ArrayList<>(ids))) {
+                entityManager.detach(contact);
+                existing.put(contact.getId(), contact);
+            }
+        }
+        
+        // 更新和收藏，同一联系人的多次修改合并为一次写入，联系方式以最后一次提交的为准
+        Map<Long, Contact> changed = new LinkedHashMap<>();
+        Map<Long, List<ContactMethod>> submittedMethods = new LinkedHashMap<>();
+        List<Integer> updateIndexes = new ArrayList<>();
+        List<Integer> favoriteIndexes = new ArrayList<>();
+        for (int i = 0; i < request.getUpdate().size(); i++) {
+            ContactBatchRequest.ContactData data = request.getUpdate().get(i);
+            Contact contact = data.getId() != null ? existing.get(data.getId()) : null;
+            String error = data.getId() == null ? "缺少联系人ID"
+                : contact == null ? "联系人不存在，ID: " + data.getId()
+                : validate(data);
+            if (error != null) {
+                result.failed("update", i, data.getId(), error);
+                continue;
+            }
+            applyChanges(contact, data);
+            changed.put(contact.getId(), contact);
+            if (data.getMethods() != null) {
+                submittedMethods.put(contact.getId(), toMethods(data.getMethods()));
+            }
+            updateIndexes.add(i);
+        }
+        for (int i = 0; i < request.getFavorite().size(); i++) {
+            ContactBatchRequest.FavoriteChange change = request.getFavorite().get(i);
+            Contact contact = change.getId() != null ? existing.get(change.getId()) : null;
+            if (contact == null) {
+                result.failed("favorite", i, change.getId(),
+                    change.getId() == null ? "缺少联系人ID" : "联系人不存在，ID: " + change.getId());
+                continue;
+            }
+            contact.setFavorite(change.isFavorite());
+            changed.put(contact.getId(), contact);
+            favoriteIndexes.add(i);
+        }
+        List<ContactMethodChanges> methodChanges = new ArrayList<>();
+        submittedMethods.forEach((id, methods) -> {
+            Contact contact = changed.get(id);
+            ContactMethodChanges changes = diffMethods(contact, methods);
+            if (!changes.isEmpty()) {
+                applyMethodChanges(contact, changes);
+                methodChanges.add(changes);
+            }
+        });
+        Set<Long> conflicts = contactBatchWriter.updateAll(new ArrayList<>(changed.values()), methodChanges);
+        for (int i : updateIndexes) {
+            recordUpdate(result, "update", i, request.getUpdate().get(i).getId(), conflicts);
+        }
+        for (int i : favoriteIndexes) {
+            recordUpdate(result, "favorite", i, request.getFavorite().get(i).getId(), conflicts);
+        }
+        
+        // 删除，重复的ID只删除一次
+        List<Contact> deleted = new ArrayList<>();
+        for (int i = 0; i < request.getDelete().size(); i++) {
+            Long id = request.getDelete().get(i);
+            Contact contact = id != null ? existing.remove(id) : null;
+            if (contact == null) {
+                result.failed("delete", i, id, id == null ? "缺少联系人ID" : "联系人不存在，ID: " + id);
+                continue;
+            }
+            deleted.add(contact);
+            result.succeeded("delete", i, id);
+        }
+        contactBatchWriter.deleteAll(deleted);
+        
+        return result;
+    }
+    
+    /**
+     * 记录一个更新或收藏操作的结果，联系人版本冲突时记为失败
+     */
+    private void recordUpdate(ContactBatchResult result, String operation, int index, Long id, Set<Long> conflicts) {
+        if (conflicts.contains(id)) {
+            result.failed(operation, index, id, "联系人已被其他人修改，本次修改未保存，请重新读取后再试");
+        } else {
+            result.succeeded(operation, index, id);
+        }
+    }
+    
+    /**
+     * 校验批量操作中的联系人数据，长度限制与数据表一致
+     * @return 错误信息，校验通过时返回null
+     */
+    private String validate(ContactBatchRequest.ContactData data) {
+        if (data.getName() != null && data.getName().trim().isEmpty()) {
+            return "姓名不能为空";
+        }
+        if (tooLong(data.getName(), 100) || tooLong(data.getCompany(), 200) || tooLong(data.getNotes(), 500)) {
+            return "姓名、公司或备注超出长度限制";
+        }
+        if (data.getMethods() != null) {
+            for (ContactBatchRequest.MethodData method : data.getMethods()) {
+                if (method.getType() == null) {
+                    return "联系方式类型不能为空";
+                }
+                if (tooLong(method.getValue(), 200) || tooLong(method.getLabel(), 50)) {
+                    return "联系方式或标签超出长度限制";
+                }
+            }
+        }
+        return null;
+    }
+    
+    private boolean tooLong(String value, int maxLength) {
+        return value != null && value.trim().length() > maxLength;
+    }
+    
+    /**
+     * 将批量操作中不为null的字段写入联系人，不修改联系方式
+     */
+    private void applyChanges(Contact contact, ContactBatchRequest.ContactData data) {
+        if (data.getName() != null) {
+            contact.setName(data.getName().trim());
+        }
+        if (data.getCompany() != null) {
+            contact.setCompany(data.getCompany());
+        }
+        if (data.getNotes() != null) {
+            contact.setNotes(data.getNotes());
+        }
+        if (data.getFavorite() != null) {
+            contact.setFavorite(data.getFavorite());
+        }
+    }
+    
+    /**
+     * 将提交的联系方式转换为联系方式对象，保留提交的ID用于匹配已有联系方式，值为空的忽略
+     */
+    private List<ContactMethod> toMethods(List<ContactBatchRequest.MethodData> data) {
+        List<ContactMethod> methods = new ArrayList<>();
+        for (ContactBatchRequest.MethodData method : data) {
+            if (method.getValue() != null && !method.getValue().trim().isEmpty()) {
+                ContactMethod contactMethod = new ContactMethod(method.getType(), method.getValue().trim(), method.getLabel());
+                contactMethod.setId(method.getId());
+                methods.add(contactMethod);
+            }
+        }
+        return methods;
     }
 }
@@ -0,0 +1,367 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactDocument;
+import com.contacts.dto.ContactSuggestion;
+import com.contacts.entity.ContactMethodType;
+import com.contacts.util.PinyinUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 联系人自动补全索引
+ * 在内存中维护姓名、公司和联系方式值的压缩前缀树（Radix Trie），
+ * 每个节点缓存其子树中排名最高的若干建议，前缀查询只需沿树下行一次，无需访问数据库
+ * 
+ * 排序规则：收藏的联系人优先，其次按显示文本升序
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ContactSuggestIndex implements ContactIndex {
+    
+    /**
+     * 每个节点缓存的建议数上限，也是单次查询能返回的最大数量
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+    
+    private static final Comparator<ContactSuggestion> RANKING = Comparator
+        .comparing(ContactSuggestion::isFavorite).reversed()
+        .thenComparing(ContactSuggestion::getText)
+        .thenComparing(ContactSuggestion::getContactId)
+        .thenComparing(ContactSuggestion::getField);
+    
+    /**
+     * 前缀树节点
+     */
+    private static final class Node {
+        
+        /**
+         * 父节点到本节点的边上的字符串
+         */
+        String label;
+        
+        /**
+         * 子节点，按边的首字符索引
+         */
+        final Map<Character, Node> children = new HashMap<>();
+        
+        /**
+         * 恰好以本节点结尾的键对应的建议
+         */
+        final Set<ContactSuggestion> entries = new LinkedHashSet<>();
+        
+        /**
+         * 本节点子树中排名最高的建议，已排序
+         */
+        List<ContactSuggestion> top = new ArrayList<>();
+        
+        Node(String label) {
+            this.label = label;
+        }
+    }
+    
+    private final Node root = new Node("");
+    
+    /**
+     * 联系人ID -> 该联系人写入前缀树的键和建议，用于删除
+     */
+    private final Map<Long, List<Map.Entry<String, ContactSuggestion>>> contactKeys = new HashMap<>();
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * 按前缀查询建议
+     * 
+     * @param prefix 输入前缀（忽略大小写，支持拼音和首字母）
+     * @param limit 最多返回的建议数，不超过MAX_SUGGESTIONS
+     * @return 排序后的建议列表
+     */
+    public List<ContactSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefixLength(child.label, key, i);
+                if (i + common == key.length()) {
+                    // 前缀在该边上或边的末尾结束
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return Collections.emptyList();
+                }
+                node = child;
+                i += common;
+            }
+            List<ContactSuggestion> top = node.top;
+            return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // ==================== 索引维护 ====================
+    
+    @Override
+    public void put(ContactDocument document) {
+        List<Map.Entry<String, ContactSuggestion>> keys = toKeys(document);
+        lock.writeLock().lock();
+        try {
+            delete(document.getId());
+            for (Map.Entry<String, ContactSuggestion> key : keys) {
+                insert(key.getKey(), key.getValue());
+            }
+            contactKeys.put(document.getId(), keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            List<Map.Entry<String, ContactSuggestion>> keys = contactKeys.remove(id);
+            if (keys != null) {
+                for (Map.Entry<String, ContactSuggestion> key : keys) {
+                    remove(key.getKey(), key.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 用已有的键重新插入带新收藏状态的建议，无需重新生成拼音键
+     */
+    @Override
+    public void updateFavorite(Long id, boolean favorite) {
+        lock.writeLock().lock();
+        try {
+            List<Map.Entry<String, ContactSuggestion>> keys = contactKeys.get(id);
+            if (keys == null || keys.isEmpty() || keys.get(0).getValue().isFavorite() == favorite) {
+                return;
+            }
+            delete(id);
+            List<Map.Entry<String, ContactSuggestion>> updated = new ArrayList<>(keys.size());
+            for (Map.Entry<String, ContactSuggestion> key : keys) {
+                ContactSuggestion old = key.getValue();
+                ContactSuggestion suggestion = new ContactSuggestion(
+                    old.getContactId(), old.getText(), old.getField(), favorite);
+                updated.add(new AbstractMap.SimpleImmutableEntry<>(key.getKey(), suggestion));
+                insert(key.getKey(), suggestion);
+            }
+            contactKeys.put(id, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 插入键，必要时拆分边，并把建议加入沿途节点的缓存
+     */
+    private void insert(String key, ContactSuggestion suggestion) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(c, child);
+                i = key.length();
+            } else {
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    // 拆分边：新建中间节点承接公共部分
+                    Node middle = new Node(child.label.substring(0, common));
+                    middle.top = new ArrayList<>(child.top);
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    node.children.put(c, middle);
+                    child = middle;
+                }
+                i += common;
+            }
+            node = child;
+            path.add(node);
+        }
+        
+        node.entries.add(suggestion);
+        for (Node visited : path) {
+            offer(visited, suggestion);
+        }
+    }
+    
+    /**
+     * 删除键，清理或合并空节点，并重新计算受影响节点的缓存
+     */
+    private void remove(String key, ContactSuggestion suggestion) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        
+        if (!node.entries.remove(suggestion)) {
+            return;
+        }
+        
+        // 自底向上处理，保证父节点重新计算时子节点缓存已是最新
+        for (int k = path.size() - 1; k >= 0; k--) {
+            Node current = path.get(k);
+            if (k > 0 && current.entries.isEmpty() && current.children.size() <= 1) {
+                Node parent = path.get(k - 1);
+                if (current.children.isEmpty()) {
+                    parent.children.remove(current.label.charAt(0));
+                } else {
+                    // 只剩一个子节点时与其合并，保持树的压缩形态
+                    Node onlyChild = current.children.values().iterator().next();
+                    onlyChild.label = current.label + onlyChild.label;
+                    parent.children.put(onlyChild.label.charAt(0), onlyChild);
+                }
+                continue;
+            }
+            if (current.top.contains(suggestion)) {
+                recompute(current);
+            }
+        }
+    }
+    
+    /**
+     * 将建议加入节点缓存，保持有序且不超过上限
+     */
+    private void offer(Node node, ContactSuggestion suggestion) {
+        List<ContactSuggestion> top = node.top;
+        if (top.contains(suggestion)) {
+            return;
+        }
+        if (top.size() >= MAX_SUGGESTIONS && RANKING.compare(suggestion, top.get(top.size() - 1)) >= 0) {
+            return;
+        }
+        int position = Collections.binarySearch(top, suggestion, RANKING);
+        top.add(position < 0 ? -position - 1 : position, suggestion);
+        if (top.size() > MAX_SUGGESTIONS) {
+            top.remove(top.size() - 1);
+        }
+    }
+    
+    /**
+     * 根据本节点的建议和子节点缓存重新计算本节点缓存
+     */
+    private void recompute(Node node) {
+        node.top = new ArrayList<>();
+        for (ContactSuggestion suggestion : node.entries) {
+            offer(node, suggestion);
+        }
+        for (Node child : node.children.values()) {
+            for (ContactSuggestion suggestion : child.top) {
+                offer(node, suggestion);
+            }
+        }
+    }
+    
+    // ==================== 文本处理 ====================
+    
+    /**
+     * 生成联系人的所有前缀树键
+     * 姓名和公司额外生成拼音和首字母键（姓名的第一个字是多音字姓氏时同时生成按姓氏读音的键），
+     * 电话和QQ额外生成纯数字键
+     */
+    private List<Map.Entry<String, ContactSuggestion>> toKeys(ContactDocument document) {
+        List<Map.Entry<String, ContactSuggestion>> keys = new ArrayList<>();
+        addTextKeys(keys, document, document.getName(), "NAME");
+        addTextKeys(keys, document, document.getCompany(), "COMPANY");
+        for (ContactDocument.MethodValue method : document.getMethods()) {
+            String value = method.getValue();
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+            ContactSuggestion suggestion = new ContactSuggestion(
+                document.getId(), value.trim(), method.getType().name(), document.isFavorite());
+            addKey(keys, normalize(value), suggestion);
+            if (method.getType() == ContactMethodType.PHONE || method.getType() == ContactMethodType.QQ) {
+                addKey(keys, value.replaceAll("\\D", ""), suggestion);
+            }
+        }
+        return keys;
+    }
+    
+    private void addTextKeys(List<Map.Entry<String, ContactSuggestion>> keys, ContactDocument document,
+                             String text, String field) {
+        if (text == null || text.trim().isEmpty()) {
+            return;
+        }
+        ContactSuggestion suggestion = new ContactSuggestion(document.getId(), text.trim(), field, document.isFavorite());
+        addKey(keys, normalize(text), suggestion);
+        if (PinyinUtils.containsChinese(text)) {
+            String pinyin = PinyinUtils.toPinyin(text);
+            String initials = PinyinUtils.toInitials(text);
+            addKey(keys, pinyin, suggestion);
+            addKey(keys, initials, suggestion);
+            if ("NAME".equals(field)) {
+                String namePinyin = PinyinUtils.toNamePinyin(text);
+                String nameInitials = PinyinUtils.toNameInitials(text);
+                if (!namePinyin.equals(pinyin)) {
+                    addKey(keys, namePinyin, suggestion);
+                }
+                if (!nameInitials.equals(initials)) {
+                    addKey(keys, nameInitials, suggestion);
+                }
+            }
+        }
+    }
+    
+    private void addKey(List<Map.Entry<String, ContactSuggestion>> keys, String key, ContactSuggestion suggestion) {
+        if (!key.isEmpty()) {
+            keys.add(new AbstractMap.SimpleImmutableEntry<>(key, suggestion));
+        }
+    }
+    
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
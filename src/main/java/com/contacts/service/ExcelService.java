@@ -1,37 +1,166 @@
 package com.contacts.service;
 
+import com.contacts.dto.ImportStats;
 import com.contacts.entity.Contact;
 import com.contacts.entity.ContactMethod;
 import com.contacts.entity.ContactMethodType;
 import com.contacts.repository.ContactRepository;
+import com.contacts.util.CountingOutputStream;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /**
  * Excel导入导出服务
  * 提供联系人数据的Excel导入、导出和模板下载功能
  * 
+ * 所有公开方法的耗时记录在contacts.excel指标中；
+ * 导入导出的行数、字节数和每秒行数记录在contacts.import.*、contacts.export.*指标中
+ * 
  * 项目：EE308FZ联系人
  * 
  * @author Team
  * @version 1.0
  */
 @Service
+@Timed(value = "contacts.excel", histogram = true)
 public class ExcelService {
     
+    /**
+     * 导出文件表头，CSV导出共用
+     */
+    static final String[] EXPORT_HEADERS = {"姓名", "公司", "是否收藏", "电话", "邮箱", "地址", "微信", "QQ", "备注"};
+    
+    /**
+     * 导出文件各列宽度（1/256字符宽度）
+     */
+    private static final int[] EXPORT_COLUMN_WIDTHS = {4000, 6000, 3000, 6000, 8000, 10000, 4500, 4000, 10000};
+    
+    /**
+     * SXSSF内存中保留的行数，超出部分刷写到临时文件
+     */
+    private static final int EXPORT_ROW_WINDOW = 200;
+    
+    private static final Logger log = LoggerFactory.getLogger(ExcelService.class);
+    
     @Autowired
     private ContactRepository contactRepository;
     
+    @Autowired
+    private ContactDeduplicator contactDeduplicator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter importParsedRows;
+    private Counter importSavedRows;
+    private Counter importMatchedRows;
+    private Counter importMergedRows;
+    private Counter importFailedRows;
+    private DistributionSummary importRowsPerSecond;
+    private Counter exportRows;
+    private Counter exportBytes;
+    private DistributionSummary exportRowsPerSecond;
+    
+    /**
+     * 导出时每批读取的联系人数量
+     */
+    @Value("${contacts.export.batch-size:1000}")
+    private int exportBatchSize;
+    
+    /**
+     * 导入时每批写入的联系人数量
+     */
+    @Value("${contacts.import.batch-size:500}")
+    private int importBatchSize;
+    
+    /**
+     * 注册导入导出指标
+     */
+    @PostConstruct
+    void registerMetrics() {
+        importParsedRows = importRowsCounter("parsed");
+        importSavedRows = importRowsCounter("saved");
+        importMatchedRows = importRowsCounter("matched");
+        importMergedRows = importRowsCounter("merged");
+        importFailedRows = importRowsCounter("failed");
+        importRowsPerSecond = rowsPerSecondSummary("contacts.import.rows.per.second", "每次导入的平均速度", "format", "xlsx");
+        exportRows = Counter.builder("contacts.export.rows")
+            .description("导出的联系人行数")
+            .baseUnit("rows")
+            .tag("format", "xlsx")
+            .register(meterRegistry);
+        exportBytes = Counter.builder("contacts.export.bytes")
+            .description("导出写出的字节数")
+            .baseUnit("bytes")
+            .tag("format", "xlsx")
+            .register(meterRegistry);
+        exportRowsPerSecond = rowsPerSecondSummary("contacts.export.rows.per.second", "每次导出的平均速度", "format", "xlsx");
+    }
+    
+    private Counter importRowsCounter(String result) {
+        return Counter.builder("contacts.import.rows")
+            .description("导入处理的行数")
+            .baseUnit("rows")
+            .tag("result", result)
+            .tag("format", "xlsx")
+            .register(meterRegistry);
+    }
+    
+    private DistributionSummary rowsPerSecondSummary(String name, String description, String... tags) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .tags(tags)
+            .baseUnit("rows")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+    
     /**
      * 生成Excel导入模板
      * 包含表头和示例数据，方便用户了解导入格式
@@ -122,6 +251,21 @@ public class ExcelService {
     
     /**
      * 导出所有联系人到Excel文件
+     * 内部复用流式导出，仅适用于数据量较小、需要字节数组的场景
+     * 
+     * @return Excel文件的字节数组
+     * @throws IOException 如果导出过程中发生IO错误
+     */
+    public byte[] exportToExcel() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportToExcel(outputStream);
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * 流式导出所有联系人到输出流
+     * 按ID键集分页分批读取联系人，通过SXSSF滑动窗口写入行，
+     * 内存占用与联系人总数无关
      * 
      * Excel格式：
      * 列A: 姓名
@@ -134,13 +278,16 @@ public class ExcelService {
      * 列H: QQ
      * 列I: 备注
      * 
-     * @return Excel文件的字节数组
+     * @param outputStream 目标输出流（如HTTP响应流），由调用方负责关闭
      * @throws IOException 如果导出过程中发生IO错误
      */
-    public byte[] exportToExcel() throws IOException {
-        List<Contact> contacts = contactRepository.findAll();
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
+    public void exportToExcel(OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        int rowNum = 1;
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("通讯录");
             
             // 创建标题样式
@@ -165,45 +312,57 @@ public class ExcelService {
             dataStyle.setBorderRight(BorderStyle.THIN);
             dataStyle.setWrapText(true);
             
-            // 创建表头
+            // 创建表头，流式写入无法自动调整列宽，使用固定列宽
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"姓名", "公司", "是否收藏", "电话", "邮箱", "地址", "微信", "QQ", "备注"};
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < EXPORT_HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(EXPORT_HEADERS[i]);
                 cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, EXPORT_COLUMN_WIDTHS[i]);
             }
             
-            // 填充数据
-            int rowNum = 1;
-            for (Contact contact : contacts) {
-                Row row = sheet.createRow(rowNum++);
-                
-                createCell(row, 0, contact.getName(), dataStyle);
-                createCell(row, 1, contact.getCompany() != null ? contact.getCompany() : "", dataStyle);
-                createCell(row, 2, contact.getFavorite() != null && contact.getFavorite() ? "是" : "否", dataStyle);
-                createCell(row, 3, getMethodValues(contact, ContactMethodType.PHONE), dataStyle);
-                createCell(row, 4, getMethodValues(contact, ContactMethodType.EMAIL), dataStyle);
-                createCell(row, 5, getMethodValues(contact, ContactMethodType.ADDRESS), dataStyle);
-                createCell(row, 6, getMethodValues(contact, ContactMethodType.WECHAT), dataStyle);
-                createCell(row, 7, getMethodValues(contact, ContactMethodType.QQ), dataStyle);
-                createCell(row, 8, contact.getNotes() != null ? contact.getNotes() : "", dataStyle);
-            }
-            
-            // 自动调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-                if (sheet.getColumnWidth(i) < 3000) {
-                    sheet.setColumnWidth(i, 3000);
+            // 按ID键集分页分批填充数据
+            long lastId = 0L;
+            while (true) {
+                List<Long> ids = contactRepository.findIdsAfter(lastId, PageRequest.of(0, exportBatchSize));
+                if (ids.isEmpty()) {
+                    break;
                 }
-                if (sheet.getColumnWidth(i) > 15000) {
-                    sheet.setColumnWidth(i, 15000);
+                
+                for (Contact contact : contactRepository.findAllWithMethodsByIdIn(ids)) {
+                    Row row = sheet.createRow(rowNum++);
+                    
+                    createCell(row, 0, contact.getName(), dataStyle);
+                    createCell(row, 1, contact.getCompany() != null ? contact.getCompany() : "", dataStyle);
+                    createCell(row, 2, contact.getFavorite() != null && contact.getFavorite() ? "是" : "否", dataStyle);
+                    createCell(row, 3, getMethodValues(contact, ContactMethodType.PHONE), dataStyle);
+                    createCell(row, 4, getMethodValues(contact, ContactMethodType.EMAIL), dataStyle);
+                    createCell(row, 5, getMethodValues(contact, ContactMethodType.ADDRESS), dataStyle);
+                    createCell(row, 6, getMethodValues(contact, ContactMethodType.WECHAT), dataStyle);
+                    createCell(row, 7, getMethodValues(contact, ContactMethodType.QQ), dataStyle);
+                    createCell(row, 8, contact.getNotes() != null ? contact.getNotes() : "", dataStyle);
                 }
+                
+                lastId = ids.get(ids.size() - 1);
+                // 释放本批次实体，避免持久化上下文随导出行数增长
+                entityManager.clear();
             }
             
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            workbook.write(countingStream);
+            countingStream.flush();
+        } finally {
+            // 删除SXSSF写入过程中产生的临时文件
+            workbook.dispose();
+            workbook.close();
+        }
+        
+        // 只统计成功完成的导出，失败或客户端断开时已生成的行没有交付
+        int rows = rowNum - 1;
+        exportRows.increment(rows);
+        exportBytes.increment(countingStream.getByteCount());
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        if (rows > 0 && seconds > 0) {
+            exportRowsPerSecond.record(rows / seconds);
         }
     }
     
@@ -236,87 +395,111 @@ public class ExcelService {
     }
     
     /**
-     * 从Excel文件导入联系人
+     * 从上传的Excel文件导入联系人
+     * 先将上传内容落地为临时文件，再以SAX事件方式流式解析
      * 
      * @param file 上传的Excel文件
-     * @return 导入的联系人列表
+     * @return 导入统计信息
      * @throws IOException 如果导入过程中发生IO错误
      */
-    public List<Contact> importFromExcel(MultipartFile file) throws IOException {
-        List<Contact> importedContacts = new ArrayList<>();
-        
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            // 跳过表头
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
+    public ImportStats importFromExcel(MultipartFile file) throws IOException {
+        ImportStats stats = new ImportStats();
+        Path tempFile = Files.createTempFile("contacts-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            importFromExcel(tempFile.toFile(), stats);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return stats;
+    }
+    
+    /**
+     * 从Excel文件流式导入联系人
+     * 基于POI的XSSF事件模型逐行解析第一个工作表，不构建DOM工作簿；
+     * 解析出的联系人按批次通过JDBC批处理写入，每批一个事务
+     * 
+     * @param file Excel文件
+     * @param stats 导入统计信息，导入过程中实时更新
+     * @throws IOException 如果文件无法读取或解析
+     */
+    public void importFromExcel(File file, ImportStats stats) throws IOException {
+        importFromExcel(file, ContactDeduplicator.Policy.NONE, stats, () -> false);
+    }
+    
+    /**
+     * 从Excel文件流式导入联系人，支持中途取消
+     * 每解析一行检查一次取消标记，取消时已提交的批次保留，未提交的批次丢弃
+     * 
+     * @param file Excel文件
+     * @param duplicatePolicy 重复行处理方式
+     * @param stats 导入统计信息，导入过程中实时更新
+     * @param cancelled 取消标记，返回true时停止导入
+     * @throws IOException 如果文件无法读取或解析
+     * @throws CancellationException 如果导入被取消
+     */
+    public void importFromExcel(File file, ContactDeduplicator.Policy duplicatePolicy,
+                                ImportStats stats, BooleanSupplier cancelled) throws IOException {
+        stats.start();
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            ContactRowHandler rowHandler = new ContactRowHandler(contactDeduplicator.open(duplicatePolicy), stats, cancelled);
             
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                
-                String name = getCellStringValue(row.getCell(0));
-                if (name == null || name.trim().isEmpty()) {
-                    continue; // 跳过没有姓名的行
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, rowHandler, new ImportDataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
                 }
-                
-                Contact contact = new Contact(name.trim());
-                contact.setCompany(getCellStringValue(row.getCell(1)));
-                
-                String favoriteStr = getCellStringValue(row.getCell(2));
-                contact.setFavorite("是".equals(favoriteStr) || "true".equalsIgnoreCase(favoriteStr) || "1".equals(favoriteStr));
-                
-                // 导入各类联系方式
-                addMethodsFromCell(contact, row.getCell(3), ContactMethodType.PHONE);
-                addMethodsFromCell(contact, row.getCell(4), ContactMethodType.EMAIL);
-                addMethodsFromCell(contact, row.getCell(5), ContactMethodType.ADDRESS);
-                addMethodsFromCell(contact, row.getCell(6), ContactMethodType.WECHAT);
-                addMethodsFromCell(contact, row.getCell(7), ContactMethodType.QQ);
-                
-                contact.setNotes(getCellStringValue(row.getCell(8)));
-                
-                Contact savedContact = contactRepository.save(contact);
-                importedContacts.add(savedContact);
             }
+            rowHandler.flush();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Excel文件解析失败: " + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+            stats.finish();
+            if (stats.getRowsParsed() > 0) {
+                importRowsPerSecond.record(stats.getRowsPerSecond());
+            }
+            log.info("Excel导入完成: {}", stats);
         }
-        
-        return importedContacts;
     }
     
     /**
-     * 获取单元格的字符串值
-     * 支持字符串、数字、布尔类型的单元格
+     * 根据一行单元格值构建联系人，CSV导入共用
      * 
-     * @param cell 单元格对象
-     * @return 单元格的字符串值，如果为空则返回null
+     * @param cells 按列顺序排列的单元格值
+     * @return 联系人对象，如果该行没有姓名则返回null
      */
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return null;
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                double numValue = cell.getNumericCellValue();
-                if (numValue == Math.floor(numValue)) {
-                    return String.valueOf((long) numValue);
-                }
-                return String.valueOf(numValue);
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    return String.valueOf(cell.getNumericCellValue());
-                }
-            default:
-                return null;
+    static Contact buildContact(String[] cells) {
+        String name = cells[0];
+        if (name == null || name.trim().isEmpty()) {
+            return null; // 跳过没有姓名的行
         }
+        
+        Contact contact = new Contact(name.trim());
+        contact.setCompany(cells[1]);
+        
+        String favoriteStr = cells[2];
+        contact.setFavorite("是".equals(favoriteStr) || "true".equalsIgnoreCase(favoriteStr) || "1".equals(favoriteStr));
+        
+        // 导入各类联系方式
+        addMethodsFromValue(contact, cells[3], ContactMethodType.PHONE);
+        addMethodsFromValue(contact, cells[4], ContactMethodType.EMAIL);
+        addMethodsFromValue(contact, cells[5], ContactMethodType.ADDRESS);
+        addMethodsFromValue(contact, cells[6], ContactMethodType.WECHAT);
+        addMethodsFromValue(contact, cells[7], ContactMethodType.QQ);
+        
+        contact.setNotes(cells[8]);
+        return contact;
     }
     
     /**
@@ -324,11 +507,10 @@ public class ExcelService {
      * 支持分号分隔的多个值
      * 
      * @param contact 联系人对象
-     * @param cell 单元格对象
+     * @param value 单元格值
      * @param type 联系方式类型
      */
-    private void addMethodsFromCell(Contact contact, Cell cell, ContactMethodType type) {
-        String value = getCellStringValue(cell);
+    private static void addMethodsFromValue(Contact contact, String value, ContactMethodType type) {
         if (value != null && !value.trim().isEmpty()) {
             String[] values = value.split("[;；]");
             for (String v : values) {
@@ -338,4 +520,106 @@ public class ExcelService {
             }
         }
     }
+    
+    /**
+     * 工作表行处理器
+     * 接收SAX解析出的单元格，组装联系人并按批次写入数据库
+     */
+    private class ContactRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        
+        private final ContactDeduplicator.Session session;
+        private final ImportStats stats;
+        private final BooleanSupplier cancelled;
+        private final List<Contact> batch = new ArrayList<>();
+        private final String[] cells = new String[EXPORT_HEADERS.length];
+        private boolean headerSkipped;
+        private int currentColumn;
+        
+        ContactRowHandler(ContactDeduplicator.Session session, ImportStats stats, BooleanSupplier cancelled) {
+            this.session = session;
+            this.stats = stats;
+            this.cancelled = cancelled;
+        }
+        
+        @Override
+        public void startRow(int rowNum) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("导入已取消");
+            }
+            Arrays.fill(cells, null);
+            currentColumn = -1;
+        }
+        
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            currentColumn = cellReference != null ? new CellReference(cellReference).getCol() : currentColumn + 1;
+            if (currentColumn < cells.length) {
+                cells[currentColumn] = formattedValue;
+            }
+        }
+        
+        @Override
+        public void endRow(int rowNum) {
+            // 跳过表头
+            if (!headerSkipped) {
+                headerSkipped = true;
+                return;
+            }
+            
+            Contact contact = buildContact(cells);
+            if (contact == null) {
+                return;
+            }
+            
+            stats.addParsed(1);
+            importParsedRows.increment();
+            batch.add(contact);
+            if (batch.size() >= importBatchSize) {
+                flush();
+            }
+        }
+        
+        /**
+         * 将当前批次写入数据库
+         * 单个批次失败时回滚该批次并记为失败，不影响后续批次
+         */
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            try {
+                ContactDeduplicator.Result result = session.save(batch);
+                stats.addSaved(result.getInserted());
+                stats.addMatched(result.getMatched());
+                stats.addMerged(result.getMerged());
+                importSavedRows.increment(result.getInserted());
+                importMatchedRows.increment(result.getMatched());
+                importMergedRows.increment(result.getMerged());
+            } catch (RuntimeException e) {
+                stats.addFailed(batch.size());
+                importFailedRows.increment(batch.size());
+                log.warn("批量写入{}个联系人失败: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+            log.debug("Excel导入进度: 已保存{}行, 重复{}行, 失败{}行, 速度{}行/秒",
+                stats.getRowsSaved(), stats.getRowsMatched(), stats.getRowsFailed(), String.format("%.1f", stats.getRowsPerSecond()));
+        }
+    }
+    
+    /**
+     * 导入用数据格式化器
+     * 常规格式的整数（如电话号码、QQ号）按整数输出，避免科学计数法
+     */
+    private static class ImportDataFormatter extends DataFormatter {
+        
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if ((formatIndex == 0 || "General".equalsIgnoreCase(formatString))
+                    && value == Math.floor(value) && !Double.isInfinite(value)) {
+                return String.valueOf((long) value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package com.contacts.service;
+
+import com.contacts.dto.ImportJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 后台导入任务服务
+ * 上传文件落地后立即返回任务ID，解析和入库在有界线程池中异步执行
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@Service
+public class ImportJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+    
+    @Autowired
+    private ExcelService excelService;
+    
+    @Autowired
+    private ContactFileImporter contactFileImporter;
+    
+    @Autowired
+    private ContactDeduplicator contactDeduplicator;
+    
+    @Autowired
+    @Qualifier("importJobExecutor")
+    private ThreadPoolTaskExecutor importJobExecutor;
+    
+    /**
+     * 最多保留的任务数，超出时清理最早结束的任务
+     */
+    @Value("${contacts.import.job.retention:100}")
+    private int jobRetention;
+    
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    
+    /**
+     * 提交导入任务
+     * 按文件扩展名选择导入方式：.xlsx使用Excel导入，.csv和.vcf使用CSV/vCard并行导入，
+     * 其他扩展名按Excel文件处理；上传内容先复制到临时文件，请求结束后仍可读取
+     * 
+     * @param file 上传的Excel、CSV或vCard文件
+     * @param duplicatePolicy 重复行处理方式，为null时使用配置的默认方式
+     * @return 导入任务
+     * @throws IOException 如果上传文件无法保存
+     * @throws org.springframework.core.task.TaskRejectedException 如果导入任务队列已满
+     */
+    public ImportJob submitImport(MultipartFile file, ContactDeduplicator.Policy duplicatePolicy) throws IOException {
+        ContactDeduplicator.Policy policy = duplicatePolicy != null ? duplicatePolicy : contactDeduplicator.getDefaultPolicy();
+        ContactFileImporter.Format format = ContactFileImporter.Format.fromFilename(file.getOriginalFilename());
+        Path tempFile = Files.createTempFile("contacts-import-", format != null ? "." + format.getExtension() : ".xlsx");
+        
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), policy);
+        try {
+            // 写入失败（如磁盘已满、上传中断）时同样删除临时文件
+            file.transferTo(tempFile);
+            jobs.put(job.getId(), job);
+            importJobExecutor.execute(() -> runImport(job, tempFile, format));
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        
+        evictFinishedJobs();
+        return job;
+    }
+    
+    /**
+     * 根据ID获取导入任务
+     * @param id 任务ID
+     * @return 导入任务Optional对象
+     */
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+    
+    /**
+     * 取消导入任务
+     * 尚未开始的任务出队后直接结束，正在执行的任务在下一行解析前停止
+     * 
+     * @param id 任务ID
+     * @return 导入任务
+     * @throws RuntimeException 如果任务不存在
+     */
+    public ImportJob cancelJob(String id) {
+        ImportJob job = getJob(id)
+            .orElseThrow(() -> new RuntimeException("导入任务不存在，ID: " + id));
+        
+        if (job.isFinished()) {
+            return job;
+        }
+        
+        job.setCancelRequested(true);
+        // 与工作线程的PENDING→RUNNING竞争，只有一方能切换成功
+        if (job.compareAndSetStatus(ImportJob.Status.PENDING, ImportJob.Status.CANCELLED)) {
+            job.getStats().finish();
+        }
+        return job;
+    }
+    
+    /**
+     * 执行导入任务
+     * @param format CSV或vCard格式，为null时按Excel文件导入
+     */
+    private void runImport(ImportJob job, Path tempFile, ContactFileImporter.Format format) {
+        try {
+            // 排队期间已被取消的任务由cancelJob结束，不再执行
+            if (!job.compareAndSetStatus(ImportJob.Status.PENDING, ImportJob.Status.RUNNING)) {
+                return;
+            }
+            if (format != null) {
+                contactFileImporter.importFile(tempFile.toFile(), format, job.getDuplicatePolicy(),
+                    job.getStats(), job::isCancelRequested);
+            } else {
+                excelService.importFromExcel(tempFile.toFile(), job.getDuplicatePolicy(),
+                    job.getStats(), job::isCancelRequested);
+            }
+            job.setStatus(ImportJob.Status.COMPLETED);
+        } catch (CancellationException e) {
+            job.setStatus(ImportJob.Status.CANCELLED);
+        } catch (Exception e) {
+            log.warn("导入任务{}失败: {}", job.getId(), e.getMessage());
+            job.setErrorMessage(e.getMessage());
+            job.setStatus(ImportJob.Status.FAILED);
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", tempFile);
+            }
+        }
+    }
+    
+    /**
+     * 任务数超过保留上限时，按结束时间清理最早结束的任务
+     */
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - jobRetention;
+        if (excess <= 0) {
+            return;
+        }
+        
+        jobs.values().stream()
+            .filter(ImportJob::isFinished)
+            .sorted(Comparator.comparingLong(job -> job.getStats().getEndTime()))
+            .limit(excess)
+            .forEach(job -> jobs.remove(job.getId()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.contacts.service;
+
+import com.contacts.dto.RequestDiagnostics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 请求诊断记录器
+ * 保存当前线程正在处理的请求的诊断信息，供JDBC和Hibernate监听器累加计数；
+ * 请求结束后放入固定容量的环形缓冲区，超出容量时丢弃最早的记录
+ * 
+ * 只在诊断模式（contacts.diagnostics.enabled=true）下创建
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class RequestDiagnosticsRecorder {
+    
+    private final ThreadLocal<RequestDiagnostics> current = new ThreadLocal<>();
+    
+    private final Deque<RequestDiagnostics> recent = new ArrayDeque<>();
+    
+    private final int capacity;
+    
+    /**
+     * 构造函数
+     * @param capacity 环形缓冲区容量
+     */
+    public RequestDiagnosticsRecorder(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+    
+    /**
+     * 开始记录当前线程上的请求
+     * @param method HTTP方法
+     * @param uri 请求路径
+     * @return 诊断信息
+     */
+    public RequestDiagnostics begin(String method, String uri) {
+        RequestDiagnostics diagnostics = new RequestDiagnostics(method, uri);
+        current.set(diagnostics);
+        return diagnostics;
+    }
+    
+    /**
+     * 获取当前线程正在记录的诊断信息
+     * @return 诊断信息，当前线程不在请求中时返回null
+     */
+    public RequestDiagnostics current() {
+        return current.get();
+    }
+    
+    /**
+     * 结束记录并保存到环形缓冲区
+     * @param diagnostics 诊断信息
+     */
+    public void end(RequestDiagnostics diagnostics) {
+        current.remove();
+        synchronized (recent) {
+            if (recent.size() >= capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(diagnostics);
+        }
+    }
+    
+    /**
+     * 获取最近的请求诊断信息，最新的在前
+     * @param limit 最多返回的条数
+     * @return 诊断信息列表
+     */
+    public List<RequestDiagnostics> recent(int limit) {
+        synchronized (recent) {
+            List<RequestDiagnostics> result = new ArrayList<>(Math.min(limit, recent.size()));
+            Iterator<RequestDiagnostics> iterator = recent.descendingIterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                result.add(iterator.next());
+            }
+            return result;
+        }
+    }
+}
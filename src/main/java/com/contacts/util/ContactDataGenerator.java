@@ -0,0 +1,148 @@
+package com.contacts.util;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 联系人测试数据生成器
+ * 生成带中文姓名、拼音账号、手机号、邮箱和地址的联系人，用于压力测试和基准测试
+ * 
+ * 每个联系人只由随机种子和序号决定，与生成顺序和分批方式无关，
+ * 因此多线程分批生成的数据与单线程完全一致，可重复生成同一数据集
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public final class ContactDataGenerator {
+    
+    /**
+     * 姓氏及其拼音
+     */
+    private static final String[][] SURNAMES = {
+        {"王", "wang"}, {"李", "li"}, {"张", "zhang"}, {"刘", "liu"}, {"陈", "chen"}, {"杨", "yang"},
+        {"黄", "huang"}, {"赵", "zhao"}, {"吴", "wu"}, {"周", "zhou"}, {"徐", "xu"}, {"孙", "sun"},
+        {"马", "ma"}, {"朱", "zhu"}, {"胡", "hu"}, {"郭", "guo"}, {"何", "he"}, {"林", "lin"},
+        {"罗", "luo"}, {"高", "gao"}, {"郑", "zheng"}, {"梁", "liang"}, {"谢", "xie"}, {"宋", "song"},
+        {"唐", "tang"}, {"许", "xu"}, {"韩", "han"}, {"冯", "feng"}, {"邓", "deng"}, {"曹", "cao"},
+        {"彭", "peng"}, {"曾", "zeng"}, {"萧", "xiao"}, {"田", "tian"}, {"董", "dong"}, {"潘", "pan"},
+        {"袁", "yuan"}, {"蔡", "cai"}, {"蒋", "jiang"}, {"余", "yu"}, {"于", "yu"}, {"杜", "du"},
+        {"叶", "ye"}, {"程", "cheng"}, {"魏", "wei"}, {"苏", "su"}, {"吕", "lv"}, {"丁", "ding"}
+    };
+    
+    /**
+     * 名字用字及其拼音
+     */
+    private static final String[][] GIVEN_NAMES = {
+        {"伟", "wei"}, {"芳", "fang"}, {"娜", "na"}, {"敏", "min"}, {"静", "jing"}, {"丽", "li"},
+        {"强", "qiang"}, {"磊", "lei"}, {"军", "jun"}, {"洋", "yang"}, {"勇", "yong"}, {"艳", "yan"},
+        {"杰", "jie"}, {"娟", "juan"}, {"涛", "tao"}, {"明", "ming"}, {"超", "chao"}, {"秀", "xiu"},
+        {"霞", "xia"}, {"平", "ping"}, {"刚", "gang"}, {"桂", "gui"}, {"华", "hua"}, {"辉", "hui"},
+        {"鹏", "peng"}, {"宇", "yu"}, {"婷", "ting"}, {"浩", "hao"}, {"欣", "xin"}, {"琳", "lin"},
+        {"晨", "chen"}, {"博", "bo"}, {"文", "wen"}, {"俊", "jun"}, {"佳", "jia"}, {"怡", "yi"},
+        {"子", "zi"}, {"涵", "han"}, {"轩", "xuan"}, {"雨", "yu"}, {"梓", "zi"}, {"煦", "xu"},
+        {"航", "hang"}, {"研", "yan"}, {"思", "si"}, {"嘉", "jia"}, {"睿", "rui"}, {"诗", "shi"}
+    };
+    
+    private static final String[] COMPANIES = {
+        "福州大学", "福州软件园科技公司", "阿里巴巴", "腾讯", "华为", "网易", "字节跳动", "百度",
+        "京东", "美团", "小米", "中国移动", "兴业银行", "宁德时代", "福耀玻璃", "安踏体育"
+    };
+    
+    private static final String[] EMAIL_DOMAINS = {"qq.com", "163.com", "126.com", "gmail.com", "outlook.com", "fzu.edu.cn"};
+    
+    private static final String[] MOBILE_PREFIXES = {
+        "130", "131", "132", "133", "135", "136", "137", "138", "139", "150", "151", "152",
+        "155", "157", "158", "159", "177", "180", "181", "182", "186", "187", "188", "189"
+    };
+    
+    private static final String[] CITIES = {
+        "福建省福州市", "福建省厦门市", "福建省泉州市", "浙江省杭州市", "广东省深圳市", "广东省广州市", "上海市", "北京市"
+    };
+    
+    private static final String[] DISTRICTS = {"鼓楼区", "台江区", "仓山区", "晋安区", "闽侯县", "思明区", "南山区", "海淀区"};
+    
+    private static final String[] ROADS = {"五四路", "八一七路", "工业路", "学府路", "软件大道", "人民路", "中山路", "解放路"};
+    
+    private static final String[] LABELS = {"手机", "工作", "个人", null};
+    
+    /**
+     * 用于把序号打散为互不相关的随机种子
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    private final long seed;
+    
+    /**
+     * 构造函数
+     * @param seed 随机种子，相同种子生成相同数据
+     */
+    public ContactDataGenerator(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * 生成一段连续序号的联系人
+     * @param firstIndex 起始序号
+     * @param count 联系人数量
+     * @return 联系人列表（未保存）
+     */
+    public List<Contact> generate(long firstIndex, int count) {
+        List<Contact> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            contacts.add(generate(firstIndex + i));
+        }
+        return contacts;
+    }
+    
+    /**
+     * 生成指定序号的联系人
+     * 邮箱中包含序号，保证不同序号的邮箱互不相同
+     * 
+     * @param index 序号
+     * @return 联系人对象（未保存）
+     */
+    public Contact generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed + index * GOLDEN_GAMMA);
+        
+        String[] surname = pick(random, SURNAMES);
+        String[] first = pick(random, GIVEN_NAMES);
+        String[] second = random.nextInt(3) == 0 ? null : pick(random, GIVEN_NAMES);
+        String name = surname[0] + first[0] + (second != null ? second[0] : "");
+        String handle = surname[1] + first[1] + (second != null ? second[1] : "");
+        
+        Contact contact = new Contact(name);
+        contact.setCompany(random.nextInt(5) == 0 ? null : pick(random, COMPANIES));
+        contact.setFavorite(random.nextInt(20) == 0);
+        
+        contact.addContactMethod(new ContactMethod(ContactMethodType.PHONE,
+            pick(random, MOBILE_PREFIXES) + String.format("%08d", random.nextInt(100_000_000)), pick(random, LABELS)));
+        if (random.nextInt(10) == 0) {
+            contact.addContactMethod(new ContactMethod(ContactMethodType.PHONE,
+                "0591-" + (80_000_000 + random.nextInt(10_000_000)), "办公室"));
+        }
+        contact.addContactMethod(new ContactMethod(ContactMethodType.EMAIL,
+            handle + index + "@" + pick(random, EMAIL_DOMAINS), pick(random, LABELS)));
+        if (random.nextInt(2) == 0) {
+            contact.addContactMethod(new ContactMethod(ContactMethodType.WECHAT, handle + "_" + random.nextInt(10_000), null));
+        }
+        if (random.nextInt(3) == 0) {
+            contact.addContactMethod(new ContactMethod(ContactMethodType.QQ,
+                String.valueOf(100_000_000L + random.nextInt(900_000_000)), null));
+        }
+        if (random.nextInt(2) == 0) {
+            contact.addContactMethod(new ContactMethod(ContactMethodType.ADDRESS,
+                pick(random, CITIES) + pick(random, DISTRICTS) + pick(random, ROADS) + (1 + random.nextInt(300)) + "号",
+                random.nextBoolean() ? "家庭" : "公司"));
+        }
+        return contact;
+    }
+    
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,44 @@
+package com.contacts.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 统计写出字节数的输出流
+ * 用于导出字节数指标，写出、刷新和关闭都直接交给底层流
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public class CountingOutputStream extends FilterOutputStream {
+    
+    private long byteCount;
+    
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        byteCount++;
+    }
+    
+    /**
+     * 直接写出整个数组，FilterOutputStream默认逐字节写出
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        byteCount += len;
+    }
+    
+    /**
+     * 获取已写出的字节数
+     * @return 字节数
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+}
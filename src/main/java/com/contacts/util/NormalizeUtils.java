@@ -0,0 +1,100 @@
+package com.contacts.util;
+
+import com.contacts.entity.ContactMethodType;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 规范化工具类
+ * 把联系方式和姓名转换为用于比较和精确查找的规范形式，
+ * 数据库中持久化的规范化列和导入去重使用相同的规则
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public final class NormalizeUtils {
+    
+    private NormalizeUtils() {}
+    
+    /**
+     * 规范化为小写形式：去掉首尾空白、连续空白合并为一个空格、转小写
+     * @param value 原始值
+     * @return 规范化后的值，原始值为空时返回null
+     */
+    public static String lower(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+    
+    /**
+     * 只保留数字，全角数字转换为半角，如"０５９１-8888 8888" -> "059188888888"
+     * @param value 原始值
+     * @return 数字字符串，没有数字时返回null
+     */
+    public static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit >= 0) {
+                sb.append((char) ('0' + digit));
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+    
+    /**
+     * 规范化电话号码：只保留数字，去掉0086或+86国家码，如"+86 138 0013 8000" -> "13800138000"
+     * @param value 原始值
+     * @return 规范化后的号码，没有数字时返回null
+     */
+    public static String phone(String value) {
+        String digits = digits(value);
+        if (digits == null) {
+            return null;
+        }
+        if (digits.startsWith("0086") && digits.length() > 4) {
+            return digits.substring(4);
+        }
+        if (digits.startsWith("86") && digits.length() == 13) {
+            return digits.substring(2);
+        }
+        return digits;
+    }
+    
+    /**
+     * 获取联系方式的纯数字形式，只有电话和QQ有纯数字形式
+     * @param type 联系方式类型
+     * @param value 联系方式值
+     * @return 电话为规范化后的号码，QQ为数字，其他类型返回null
+     */
+    public static String methodDigits(ContactMethodType type, String value) {
+        if (type == ContactMethodType.PHONE) {
+            return phone(value);
+        }
+        if (type == ContactMethodType.QQ) {
+            return digits(value);
+        }
+        return null;
+    }
+    
+    /**
+     * 规范化姓名：NFKC规范化（全角转半角等）、去掉所有空白、转小写，如"张 三" -> "张三"
+     * @param name 姓名
+     * @return 规范化后的姓名，姓名为空时返回null
+     */
+    public static String name(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC)
+            .replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+}
@@ -0,0 +1,146 @@
+package com.contacts.util;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 拼音工具类
+ * 将中文文本转换为全拼和首字母，用于拼音搜索
+ * 多音字取第一个读音，非汉字字符原样保留（字母转小写）；
+ * 姓名的第一个字按姓氏读音转换（如"曾"读zeng而不是ceng），见toNamePinyin
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public final class PinyinUtils {
+    
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+    
+    /**
+     * 常见多音字姓氏的读音，只收录与pinyin4j第一个读音不同的字
+     */
+    private static final Map<Character, String> SURNAME_READINGS = new HashMap<>();
+    
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+        
+        String[][] surnames = {
+            {"曾", "zeng"}, {"单", "shan"}, {"解", "xie"}, {"仇", "qiu"}, {"区", "ou"}, {"查", "zha"},
+            {"朴", "piao"}, {"盖", "ge"}, {"缪", "miao"}, {"乐", "yue"}, {"覃", "qin"}, {"种", "chong"},
+            {"秘", "bi"}, {"员", "yun"}, {"召", "shao"}, {"句", "gou"}, {"繁", "po"}, {"祭", "zhai"},
+            {"柏", "bai"}
+        };
+        for (String[] surname : surnames) {
+            SURNAME_READINGS.put(surname[0].charAt(0), surname[1]);
+        }
+    }
+    
+    private PinyinUtils() {}
+    
+    /**
+     * 判断文本是否包含汉字
+     * @param text 文本
+     * @return 包含汉字时返回true
+     */
+    public static boolean containsChinese(String text) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (isChinese(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 转换为全拼，如"孙煦航" -> "sunxuhang"
+     * @param text 文本
+     * @return 全拼字符串，空白字符会被去掉
+     */
+    public static String toPinyin(String text) {
+        return convert(text, false, false);
+    }
+    
+    /**
+     * 转换为拼音首字母，如"孙煦航" -> "sxh"
+     * @param text 文本
+     * @return 首字母字符串，空白字符会被去掉
+     */
+    public static String toInitials(String text) {
+        return convert(text, false, true);
+    }
+    
+    /**
+     * 将姓名转换为全拼，第一个字是多音字姓氏时按姓氏读音，如"曾小明" -> "zengxiaoming"
+     * @param name 姓名
+     * @return 全拼字符串，空白字符会被去掉
+     */
+    public static String toNamePinyin(String name) {
+        return convert(name, true, false);
+    }
+    
+    /**
+     * 将姓名转换为拼音首字母，第一个字是多音字姓氏时按姓氏读音，如"单田芳" -> "stf"
+     * @param name 姓名
+     * @return 首字母字符串，空白字符会被去掉
+     */
+    public static String toNameInitials(String name) {
+        return convert(name, true, true);
+    }
+    
+    /**
+     * 逐字转换为拼音或首字母
+     * @param surname 第一个非空白字符是否按姓氏读音转换
+     * @param initials 是否只取首字母
+     */
+    private static String convert(String text, boolean surname, boolean initials) {
+        StringBuilder sb = new StringBuilder();
+        boolean first = surname;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            String pinyin = first && SURNAME_READINGS.containsKey(c) ? SURNAME_READINGS.get(c) : firstPinyin(c);
+            first = false;
+            if (pinyin != null) {
+                sb.append(initials ? pinyin.substring(0, 1) : pinyin);
+            } else {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 获取汉字的第一个拼音读音
+     * @param c 字符
+     * @return 拼音，非汉字返回null
+     */
+    private static String firstPinyin(char c) {
+        if (!isChinese(c)) {
+            return null;
+        }
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+            return readings != null && readings.length > 0 ? readings[0] : null;
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            return null;
+        }
+    }
+    
+    private static boolean isChinese(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+}
@@ -0,0 +1,33 @@
+package com.contacts.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ * 
+ * @author Team
+ * @version 1.0
+ */
+public final class TransactionUtils {
+    
+    private TransactionUtils() {}
+    
+    /**
+     * 在当前事务提交后执行操作，没有事务时立即执行
+     * 事务回滚时不执行
+     * @param action 要执行的操作
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+-- 初始表结构，与此前 spring.jpa.hibernate.ddl-auto=update 生成的结构一致
+
+CREATE TABLE contacts (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL,
+    company      VARCHAR(200),
+    is_favorite  BOOLEAN,
+    notes        VARCHAR(500),
+    created_time TIMESTAMP,
+    updated_time TIMESTAMP
+);
+
+-- 首页列表和键集分页按 收藏 DESC, 姓名, ID 排序
+CREATE INDEX idx_contacts_favorite_name_id ON contacts (is_favorite DESC, name, id);
+
+CREATE TABLE contact_methods (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    contact_id   BIGINT,
+    type         VARCHAR(20)  NOT NULL,
+    method_value VARCHAR(200) NOT NULL,
+    label        VARCHAR(50),
+    CONSTRAINT fk_contact_methods_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
@@ -0,0 +1,19 @@
+-- 联系方式的规范化列和复合索引
+-- 规范化列由应用在写入时计算（见 NormalizeUtils），规则在数据库之间不便用SQL统一表达；
+-- 此前只有内存数据库，V1和V2总是在同一次迁移中执行，不需要回填已有数据
+
+-- 去掉首尾空白、合并连续空白后的小写值
+ALTER TABLE contact_methods ADD COLUMN value_lower VARCHAR(200);
+
+-- 电话（去掉+86/0086国家码）和QQ的纯数字形式，其他类型为NULL
+ALTER TABLE contact_methods ADD COLUMN value_digits VARCHAR(200);
+
+-- 按联系人查询和删除联系方式、加载联系人时的连接、
+-- 摘要查询中"某联系人某类型ID最小的一条"子查询
+CREATE INDEX idx_contact_methods_contact_type ON contact_methods (contact_id, type, id);
+
+-- 按类型查询，以及按类型查找某个邮箱、微信等
+CREATE INDEX idx_contact_methods_type_lower ON contact_methods (type, value_lower);
+
+-- 按类型查找某个电话号码或QQ号
+CREATE INDEX idx_contact_methods_type_digits ON contact_methods (type, value_digits);
@@ -0,0 +1,10 @@
+-- 主键改为序列分配（pooled-lo）：每个序列值v代表[v, v+50)这一段ID，
+-- Hibernate和JDBC批量写入在插入前就能拿到ID，插入可以批处理，不再依赖自增列回填主键
+-- INCREMENT BY 必须与实体中的 ID_ALLOCATION_SIZE 一致
+-- 此前只有内存数据库，迁移时表为空，序列从1开始
+
+CREATE SEQUENCE contacts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE contact_methods_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE contacts ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE contact_methods ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,5 @@
+-- 联系人乐观锁版本号：每次更新加1，更新时带上读取时的版本号作为条件，
+-- 版本号不一致说明已被其他请求修改，更新失败而不是覆盖
+-- 由Hibernate的@Version和JDBC批量更新共同维护，已有数据从0开始
+
+ALTER TABLE contacts ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
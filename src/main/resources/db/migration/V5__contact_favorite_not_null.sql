@@ -0,0 +1,8 @@
+-- 收藏标记改为非空，默认未收藏
+-- 键集分页按 is_favorite = true / false 分两段查询，为NULL的行两段都不会返回；
+-- 已有的NULL视为未收藏
+
+UPDATE contacts SET is_favorite = FALSE WHERE is_favorite IS NULL;
+
+ALTER TABLE contacts ALTER COLUMN is_favorite SET DEFAULT FALSE;
+ALTER TABLE contacts ALTER COLUMN is_favorite SET NOT NULL;
@@ -0,0 +1,199 @@
+package com.contacts.config;
+
+import com.contacts.entity.Contact;
+import com.contacts.service.ContactService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 读写分离数据源
+ * 主库和副本是两个独立的H2内存数据库，副本中有一条主库没有的标记联系人，
+ * 只读事务能查到标记说明使用了副本，查不到说明回退到了主库
+ * 
+ * 启动时的写入（初始化数据）发生在测试主线程上，为避免主线程处在写后读窗口内，每次调用都在新线程中执行
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+    "contacts.datasource.replica.jdbc-url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+    "contacts.datasource.replica.username=sa",
+    "contacts.datasource.routing.lag-query=SELECT lag_seconds FROM replica_lag",
+    "contacts.datasource.routing.max-lag=5s",
+    "contacts.datasource.routing.check-interval=1h",
+    "contacts.datasource.routing.read-after-write=1h"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingDataSourceTest {
+    
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    
+    private static final String REPLICA_MARKER = "副本标记";
+    
+    private static final JdbcTemplate replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ContactService contactService;
+    
+    @Autowired
+    private ReplicaLagMonitor monitor;
+    
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+    
+    /**
+     * 在应用启动前建立副本的表结构、延迟表和标记联系人
+     */
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replicaJdbc.execute("CREATE TABLE replica_lag (lag_seconds DOUBLE)");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+        replicaJdbc.update("INSERT INTO contacts (id, name, is_favorite, created_time, updated_time) "
+            + "VALUES (1000000, ?, FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", REPLICA_MARKER);
+    }
+    
+    @Test
+    void readOnlyTransactionsUseReplica() throws Exception {
+        assertThat(onNewThread(this::contactNames)).contains(REPLICA_MARKER);
+    }
+    
+    @Test
+    void writesGoToPrimary() throws Exception {
+        onNewThread(() -> contactService.createContact(new Contact("主库写入")));
+        
+        String sql = "SELECT COUNT(*) FROM contacts WHERE name = '主库写入'";
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject(sql, Integer.class)).isEqualTo(1);
+        assertThat(replicaJdbc.queryForObject(sql, Integer.class)).isZero();
+    }
+    
+    @Test
+    void writeAfterReadInOneRequestGoesToPrimary() throws Exception {
+        // 两边都有的联系人，相当于已复制到副本；删除请求先只读查询联系人，再在写事务中删除
+        String insert = "INSERT INTO contacts (id, name, is_favorite, created_time, updated_time) "
+            + "VALUES (2000000, '已复制', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primaryDataSource);
+        primaryJdbc.update(insert);
+        replicaJdbc.update(insert);
+        
+        mockMvc.perform(post("/contact/delete/{id}", 2000000)).andExpect(status().is3xxRedirection());
+        
+        String sql = "SELECT COUNT(*) FROM contacts WHERE id = 2000000";
+        assertThat(primaryJdbc.queryForObject(sql, Integer.class)).isZero();
+        assertThat(replicaJdbc.queryForObject(sql, Integer.class)).isEqualTo(1);
+    }
+    
+    @Test
+    void readAfterWriteUsesPrimaryOnlyForTheWritingThread() throws Exception {
+        List<String> ownRead = onNewThread(() -> {
+            contactService.createContact(new Contact("线程写入"));
+            return contactNames();
+        });
+        
+        assertThat(ownRead).contains("线程写入").doesNotContain(REPLICA_MARKER);
+        assertThat(onNewThread(this::contactNames)).contains(REPLICA_MARKER);
+    }
+    
+    @Test
+    void readAfterWriteUsesPrimaryOnlyForTheWritingSession() throws Exception {
+        MockHttpServletRequest writeRequest = new MockHttpServletRequest();
+        MockHttpServletRequest sameSession = new MockHttpServletRequest();
+        MockHttpServletRequest otherSession = new MockHttpServletRequest();
+        
+        List<List<String>> reads = onNewThread(() -> {
+            inRequest(writeRequest, () -> contactService.createContact(new Contact("会话写入")));
+            sameSession.setSession(writeRequest.getSession(false));
+            return List.of(inRequest(sameSession, this::contactNames), inRequest(otherSession, this::contactNames));
+        });
+        
+        assertThat(writeRequest.getSession(false)).isNotNull();
+        assertThat(reads.get(0)).contains("会话写入").doesNotContain(REPLICA_MARKER);
+        assertThat(reads.get(1)).contains(REPLICA_MARKER);
+    }
+    
+    @Test
+    void replicaLagOverLimitFallsBackToPrimary() throws Exception {
+        replicaJdbc.update("UPDATE replica_lag SET lag_seconds = 60");
+        try {
+            monitor.check();
+            
+            assertThat(monitor.isReplicaUsable()).isFalse();
+            assertThat(onNewThread(this::contactNames)).doesNotContain(REPLICA_MARKER);
+        } finally {
+            replicaJdbc.update("UPDATE replica_lag SET lag_seconds = 0");
+            monitor.check();
+        }
+        assertThat(onNewThread(this::contactNames)).contains(REPLICA_MARKER);
+    }
+    
+    @Test
+    @DirtiesContext
+    void unreachableReplicaFallsBackToPrimary() throws Exception {
+        replicaDataSource.close();
+        
+        assertThat(onNewThread(this::contactNames)).doesNotContain(REPLICA_MARKER);
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+    
+    private List<String> contactNames() {
+        return contactService.getAllContacts().stream().map(Contact::getName).collect(Collectors.toList());
+    }
+    
+    /**
+     * 在绑定了指定请求的上下文中执行
+     */
+    private static <T> T inRequest(MockHttpServletRequest request, Callable<T> action) throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return action.call();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+    
+    /**
+     * 在新线程中执行，线程上没有此前写入留下的写后读状态
+     */
+    private static <T> T onNewThread(Callable<T> action) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(action).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.contacts.controller;
+
+import com.contacts.dto.ContactCursor;
+import com.contacts.service.ContactCache;
+import com.contacts.service.RequestDiagnosticsRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 每个请求执行的SQL语句数
+ * 通过请求诊断模式统计整个请求（包括页面渲染期间的延迟加载）的语句数，
+ * 语句数与联系人数量无关，列表页重新出现N+1查询时测试失败
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@SpringBootTest(properties = {
+    "contacts.diagnostics.enabled=true",
+    "contacts.seed.count=200",
+    "contacts.export.batch-size=1000"
+})
+@AutoConfigureMockMvc
+class ContactQueryCountTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private RequestDiagnosticsRecorder recorder;
+    
+    @Autowired
+    private ContactCache contactCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void contactListUsesOneStatement() throws Exception {
+        assertThat(statements(get("/"))).isEqualTo(1);
+    }
+    
+    @Test
+    void nextListPageUsesOneStatement() throws Exception {
+        String name = jdbcTemplate.queryForObject(
+            "SELECT name FROM contacts WHERE is_favorite = FALSE ORDER BY name, id LIMIT 1", String.class);
+        Long id = jdbcTemplate.queryForObject(
+            "SELECT id FROM contacts WHERE is_favorite = FALSE ORDER BY name, id LIMIT 1", Long.class);
+        String cursor = new ContactCursor(false, name, id).encode();
+        
+        assertThat(statements(get("/").param("cursor", cursor))).isEqualTo(1);
+    }
+    
+    @Test
+    void favoritesListUsesOneStatement() throws Exception {
+        Long favoriteId = jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM contacts WHERE is_favorite = TRUE", Long.class);
+        contactCache.evict(favoriteId, true);
+        
+        assertThat(statements(get("/").param("favoritesOnly", "true"))).isEqualTo(1);
+    }
+    
+    @Test
+    void searchUsesOneStatement() throws Exception {
+        assertThat(statements(get("/").param("keyword", "com"))).isEqualTo(1);
+    }
+    
+    @Test
+    void contactDetailUsesOneStatement() throws Exception {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM contacts", Long.class);
+        contactCache.evict(id, false);
+        
+        assertThat(statements(get("/contact/{id}", id))).isEqualTo(1);
+    }
+    
+    @Test
+    void excelExportUsesTwoStatementsPerBatch() throws Exception {
+        // 一批读取ID、一批抓取联系人及联系方式，最后一次读取ID返回空结果
+        assertThat(statements(get("/export"))).isEqualTo(3);
+    }
+    
+    /**
+     * 执行请求并返回该请求执行的SQL语句数
+     */
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+        return recorder.recent(1).get(0).getStatements();
+    }
+}
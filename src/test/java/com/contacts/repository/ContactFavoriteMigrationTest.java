@@ -0,0 +1,47 @@
+package com.contacts.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 收藏标记非空迁移
+ * 在V4的表结构上插入收藏标记为NULL的联系人，迁移到最新版本后应视为未收藏，
+ * 出现在键集分页的未收藏段中
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class ContactFavoriteMigrationTest {
+    
+    @Test
+    void nullFavoritesBecomeFalseAndStayInNonFavoritePages() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:contact-favorite;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target("4").load().migrate();
+        jdbcTemplate.update("INSERT INTO contacts (id, name, is_favorite, created_time, updated_time) VALUES "
+            + "(1, '收藏', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP), "
+            + "(2, '未收藏', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP), "
+            + "(3, '未设置', NULL, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        
+        // 与ContactRepository.findFirstNonFavoritePage的条件相同
+        List<Long> nonFavorites = jdbcTemplate.queryForList(
+            "SELECT id FROM contacts WHERE is_favorite = FALSE ORDER BY name, id", Long.class);
+        assertThat(nonFavorites).containsExactlyInAnyOrder(2L, 3L);
+        jdbcTemplate.update("INSERT INTO contacts (id, name) VALUES (4, '默认')");
+        assertThat(jdbcTemplate.queryForObject("SELECT is_favorite FROM contacts WHERE id = 4", Boolean.class))
+            .isFalse();
+        assertThatThrownBy(() -> jdbcTemplate.update("UPDATE contacts SET is_favorite = NULL WHERE id = 1"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
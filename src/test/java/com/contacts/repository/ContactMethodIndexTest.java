@@ -0,0 +1,120 @@
+package com.contacts.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * contact_methods的复合索引
+ * 先只迁移到V1，填充两万个联系人、六万条联系方式后记录各查询的执行计划（索引前），
+ * 再迁移到最新版本并回填规范化列，在同一份数据上记录执行计划（索引后），比较两者
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContactMethodIndexTest {
+    
+    private static final int CONTACTS = 20000;
+    
+    private static final String TABLE_SCAN = "tableScan";
+    
+    /**
+     * 按类型查询
+     */
+    private static final String BY_TYPE = "SELECT * FROM contact_methods WHERE type = 'QQ'";
+    
+    /**
+     * 主要电话子查询，与ContactRepository.SUMMARY_SELECT生成的SQL结构相同
+     */
+    private static final String SUMMARY = "SELECT c.id, c.name, "
+        + "(SELECT p.method_value FROM contact_methods p WHERE p.id = "
+        + "(SELECT MIN(p2.id) FROM contact_methods p2 WHERE p2.contact_id = c.id AND p2.type = 'PHONE')) "
+        + "FROM contacts c ORDER BY c.is_favorite DESC, c.name, c.id LIMIT 21";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final Map<String, String> plansBefore = new HashMap<>();
+    
+    ContactMethodIndexTest() {
+        jdbcTemplate = new JdbcTemplate(dataSource());
+    }
+    
+    @BeforeAll
+    void migrateAndExplain() {
+        Flyway.configure().dataSource(dataSource()).target("1").load().migrate();
+        jdbcTemplate.update("INSERT INTO contacts (id, name, is_favorite, created_time, updated_time) "
+            + "SELECT X, CONCAT('联系人', X), MOD(X, 20) = 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+            + "FROM SYSTEM_RANGE(1, ?)", CONTACTS);
+        // 每个联系人一个电话、一个邮箱、一个QQ
+        jdbcTemplate.update("INSERT INTO contact_methods (id, contact_id, type, method_value) "
+            + "SELECT X, (X + 2) / 3, "
+            + "CASE MOD(X, 3) WHEN 1 THEN 'PHONE' WHEN 2 THEN 'EMAIL' ELSE 'QQ' END, "
+            + "CASE MOD(X, 3) WHEN 2 THEN CONCAT('m', X, '@Example.com') ELSE CAST(13800000000 + X AS VARCHAR) END "
+            + "FROM SYSTEM_RANGE(1, ?)", CONTACTS * 3);
+        jdbcTemplate.execute("ANALYZE");
+        
+        // V1时按邮箱和电话号码查找只能比较原始值
+        plansBefore.put(BY_TYPE, plan(BY_TYPE));
+        plansBefore.put("lower", plan("SELECT * FROM contact_methods WHERE type = 'EMAIL' "
+            + "AND LOWER(method_value) = 'm2@example.com'"));
+        plansBefore.put("digits", plan("SELECT * FROM contact_methods WHERE type = 'PHONE' "
+            + "AND method_value = '13800000001'"));
+        plansBefore.put(SUMMARY, plan(SUMMARY));
+        
+        // 迁移到最新版本，按NormalizeUtils的规则回填规范化列（测试数据中没有空白和国家码）
+        Flyway.configure().dataSource(dataSource()).load().migrate();
+        jdbcTemplate.update("UPDATE contact_methods SET value_lower = LOWER(method_value), "
+            + "value_digits = CASE WHEN type IN ('PHONE', 'QQ') THEN method_value END");
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    @Test
+    void typeQueryUsesTypeLowerIndex() {
+        assertThat(plansBefore.get(BY_TYPE)).contains(TABLE_SCAN);
+        assertThat(plan(BY_TYPE)).doesNotContain(TABLE_SCAN).containsIgnoringCase("idx_contact_methods_type_lower");
+    }
+    
+    @Test
+    void valueLowerLookupUsesTypeLowerIndex() {
+        assertThat(plansBefore.get("lower")).contains(TABLE_SCAN);
+        assertThat(plan("SELECT * FROM contact_methods WHERE type = 'EMAIL' AND value_lower = 'm2@example.com'"))
+            .doesNotContain(TABLE_SCAN)
+            .containsIgnoringCase("idx_contact_methods_type_lower");
+    }
+    
+    @Test
+    void valueDigitsLookupUsesTypeDigitsIndex() {
+        assertThat(plansBefore.get("digits")).contains(TABLE_SCAN);
+        assertThat(plan("SELECT * FROM contact_methods WHERE type = 'PHONE' AND value_digits = '13800000001'"))
+            .doesNotContain(TABLE_SCAN)
+            .containsIgnoringCase("idx_contact_methods_type_digits");
+    }
+    
+    @Test
+    void summarySubqueryUsesContactTypeIndex() {
+        // V1时子查询只能用外键索引按contact_id查找，再逐行过滤类型
+        assertThat(plansBefore.get(SUMMARY)).doesNotContainIgnoringCase("idx_contact_methods_contact_type");
+        assertThat(plan(SUMMARY)).containsIgnoringCase("idx_contact_methods_contact_type");
+    }
+    
+    /**
+     * 获取语句的执行计划
+     */
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+    
+    private static DataSource dataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:contact-method-plans;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,128 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactBatchRequest;
+import com.contacts.dto.ContactBatchResult;
+import com.contacts.dto.ContactMethodChanges;
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+import com.contacts.repository.ContactRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量更新
+ * 版本冲突只影响冲突的联系人，联系方式与已有联系方式比较后只写入变化的行
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batch-update;DB_CLOSE_DELAY=-1")
+class ContactBatchUpdateTest {
+    
+    @Autowired
+    private ContactService contactService;
+    
+    @Autowired
+    private ContactBatchWriter contactBatchWriter;
+    
+    @Autowired
+    private ContactRepository contactRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void batchUpdateKeepsUnchangedMethodRows() {
+        Contact contact = create("批量联系方式",
+            new ContactMethod(ContactMethodType.PHONE, "13800000001"),
+            new ContactMethod(ContactMethodType.EMAIL, "old@example.com"),
+            new ContactMethod(ContactMethodType.QQ, "10001"));
+        Map<ContactMethodType, Long> ids = methodIds(contact.getId());
+        
+        ContactBatchRequest.ContactData data = new ContactBatchRequest.ContactData();
+        data.setId(contact.getId());
+        data.setMethods(List.of(
+            method(ids.get(ContactMethodType.PHONE), ContactMethodType.PHONE, "13800000001"),
+            method(ids.get(ContactMethodType.EMAIL), ContactMethodType.EMAIL, "new@example.com"),
+            method(null, ContactMethodType.WECHAT, "wx_new")));
+        ContactBatchRequest request = new ContactBatchRequest();
+        request.setUpdate(List.of(data));
+        
+        ContactBatchResult result = contactService.applyBatch(request);
+        
+        assertThat(result.getFailed()).isZero();
+        Map<ContactMethodType, Long> after = methodIds(contact.getId());
+        assertThat(after).containsOnlyKeys(ContactMethodType.PHONE, ContactMethodType.EMAIL, ContactMethodType.WECHAT);
+        assertThat(after.get(ContactMethodType.PHONE)).isEqualTo(ids.get(ContactMethodType.PHONE));
+        assertThat(after.get(ContactMethodType.EMAIL)).isEqualTo(ids.get(ContactMethodType.EMAIL));
+        assertThat(jdbcTemplate.queryForObject("SELECT value_lower FROM contact_methods WHERE id = ?",
+            String.class, ids.get(ContactMethodType.EMAIL))).isEqualTo("new@example.com");
+    }
+    
+    @Test
+    void versionConflictSkipsOnlyTheConflictingContact() {
+        Contact stale = load(create("冲突联系人", new ContactMethod(ContactMethodType.PHONE, "13800000002")).getId());
+        Contact fresh = load(create("正常联系人", new ContactMethod(ContactMethodType.PHONE, "13800000003")).getId());
+        // 读取之后被其他请求修改
+        jdbcTemplate.update("UPDATE contacts SET version = version + 1 WHERE id = ?", stale.getId());
+        
+        List<ContactMethodChanges> methodChanges = new ArrayList<>();
+        for (Contact contact : List.of(stale, fresh)) {
+            contact.setNotes("已修改");
+            ContactMethodChanges changes = new ContactMethodChanges(contact);
+            ContactMethod added = new ContactMethod(ContactMethodType.EMAIL, contact.getId() + "@example.com");
+            contact.addContactMethod(added);
+            changes.getAdded().add(added);
+            methodChanges.add(changes);
+        }
+        
+        Set<Long> conflicts = contactBatchWriter.updateAll(List.of(stale, fresh), methodChanges);
+        
+        assertThat(conflicts).containsExactly(stale.getId());
+        assertThat(notes(stale.getId())).isNull();
+        assertThat(methodIds(stale.getId())).containsOnlyKeys(ContactMethodType.PHONE);
+        assertThat(notes(fresh.getId())).isEqualTo("已修改");
+        assertThat(methodIds(fresh.getId())).containsOnlyKeys(ContactMethodType.PHONE, ContactMethodType.EMAIL);
+    }
+    
+    private Contact create(String name, ContactMethod... methods) {
+        return contactService.saveContactWithMethods(new Contact(name), new ArrayList<>(List.of(methods)));
+    }
+    
+    /**
+     * 加载联系人及其联系方式，返回脱离持久化上下文的对象
+     */
+    private Contact load(Long id) {
+        return contactRepository.findAllWithMethodsByIdIn(List.of(id)).get(0);
+    }
+    
+    private Map<ContactMethodType, Long> methodIds(Long contactId) {
+        return jdbcTemplate.queryForList("SELECT type, id FROM contact_methods WHERE contact_id = ?", contactId)
+            .stream()
+            .collect(Collectors.toMap(row -> ContactMethodType.valueOf((String) row.get("TYPE")),
+                row -> ((Number) row.get("ID")).longValue()));
+    }
+    
+    private String notes(Long id) {
+        return jdbcTemplate.queryForObject("SELECT notes FROM contacts WHERE id = ?", String.class, id);
+    }
+    
+    private static ContactBatchRequest.MethodData method(Long id, ContactMethodType type, String value) {
+        ContactBatchRequest.MethodData method = new ContactBatchRequest.MethodData();
+        method.setId(id);
+        method.setType(type);
+        method.setValue(value);
+        return method;
+    }
+}
@@ -0,0 +1,90 @@
+package com.contacts.service;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 导入去重
+ * 每个测试使用不同的号码和邮箱，互不影响
+ * 
+ * @author Team
+ * @version 1.0
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:contact-dedup;DB_CLOSE_DELAY=-1")
+class ContactDeduplicatorTest {
+    
+    @Autowired
+    private ContactDeduplicator contactDeduplicator;
+    
+    @Autowired
+    private ContactService contactService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void skipMatchesNormalizedPhoneAndLeavesExistingContact() {
+        Long id = create("跳过", new ContactMethod(ContactMethodType.PHONE, "13900000001"));
+        
+        ContactDeduplicator.Result result = contactDeduplicator.open(ContactDeduplicator.Policy.SKIP).save(List.of(
+            row("跳过", "新公司", new ContactMethod(ContactMethodType.PHONE, "+86 139 0000 0001")),
+            row("跳过2", null, new ContactMethod(ContactMethodType.PHONE, "0086-13900000001"),
+                new ContactMethod(ContactMethodType.WECHAT, "wx_skip")),
+            row("新联系人", null, new ContactMethod(ContactMethodType.PHONE, "13900000009"))));
+        
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getMerged()).isZero();
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(methodValues(id)).containsExactly("13900000001");
+        assertThat(jdbcTemplate.queryForObject("SELECT company FROM contacts WHERE id = ?", String.class, id))
+            .isNull();
+    }
+    
+    @Test
+    void mergeMatchesCaseFoldedEmailAndAddsNewInformation() {
+        Long id = create("合并", new ContactMethod(ContactMethodType.EMAIL, "Merge.Me@Example.com"));
+        
+        ContactDeduplicator.Result result = contactDeduplicator.open(ContactDeduplicator.Policy.MERGE).save(List.of(
+            row("合并", "新公司", new ContactMethod(ContactMethodType.EMAIL, " merge.me@EXAMPLE.com "),
+                new ContactMethod(ContactMethodType.WECHAT, "wx_merge")),
+            // 没有新信息的重复行只计为匹配
+            row("合并", null, new ContactMethod(ContactMethodType.EMAIL, "MERGE.ME@example.com"))));
+        
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getMerged()).isEqualTo(1);
+        assertThat(result.getInserted()).isZero();
+        assertThat(methodValues(id)).containsExactlyInAnyOrder("Merge.Me@Example.com", "wx_merge");
+        assertThat(jdbcTemplate.queryForObject("SELECT company FROM contacts WHERE id = ?", String.class, id))
+            .isEqualTo("新公司");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE name = '合并'", Integer.class))
+            .isEqualTo(1);
+    }
+    
+    private Long create(String name, ContactMethod... methods) {
+        return contactService.saveContactWithMethods(new Contact(name), new ArrayList<>(List.of(methods))).getId();
+    }
+    
+    private static Contact row(String name, String company, ContactMethod... methods) {
+        Contact contact = new Contact(name);
+        contact.setCompany(company);
+        for (ContactMethod method : methods) {
+            contact.addContactMethod(method);
+        }
+        return contact;
+    }
+    
+    private List<String> methodValues(Long contactId) {
+        return jdbcTemplate.queryForList("SELECT method_value FROM contact_methods WHERE contact_id = ?",
+            String.class, contactId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.contacts.service;
+
+import com.contacts.entity.Contact;
+import com.contacts.entity.ContactMethod;
+import com.contacts.entity.ContactMethodType;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * CSV和vCard解析
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class ContactFileImporterTest {
+    
+    @Test
+    void quotedCsvFieldKeepsCommasAndNewlines() throws IOException {
+        BufferedReader reader = reader("姓名,备注\n张三,\"第一行\n第二行, 含逗号\"\n李四,普通\n");
+        
+        assertThat(ContactFileImporter.nextCsvRecord(reader)).isEqualTo("姓名,备注");
+        String record = ContactFileImporter.nextCsvRecord(reader);
+        assertThat(ContactFileImporter.parseCsvFields(record)).containsExactly("张三", "第一行\n第二行, 含逗号");
+        assertThat(ContactFileImporter.parseCsvFields(ContactFileImporter.nextCsvRecord(reader)))
+            .containsExactly("李四", "普通");
+        assertThat(ContactFileImporter.nextCsvRecord(reader)).isNull();
+    }
+    
+    @Test
+    void doubledQuotesAreUnescaped() throws IOException {
+        assertThat(ContactFileImporter.parseCsvFields("\"他说\"\"你好\"\"\",,\"\"\"\""))
+            .containsExactly("他说\"你好\"", "", "\"");
+        
+        // 转义的引号不结束引号内的换行
+        BufferedReader reader = reader("王五,\"引号\"\"\n下一行\"\n");
+        assertThat(ContactFileImporter.parseCsvFields(ContactFileImporter.nextCsvRecord(reader)))
+            .containsExactly("王五", "引号\"\n下一行");
+    }
+    
+    @Test
+    void bomPrefixedHeaderIsRecognized() throws IOException {
+        assertThat(ContactFileImporter.csvColumns("\uFEFF姓名,电话,unknown,Email"))
+            .containsExactly(0, 3, -1, 4);
+    }
+    
+    @Test
+    void foldedVCardLinesAreJoined() {
+        Contact contact = ContactFileImporter.parseVCard("VERSION:3.0\n"
+            + "FN:张\n"
+            + " 三\n"
+            + "ORG:示例\\, 公司;研发部\n"
+            + "TEL;TYPE=CELL:+86 138\n"
+            + "\t0013 8000\n"
+            + "EMAIL;TYPE=WORK:zhang@example.com\n");
+        
+        assertThat(contact.getName()).isEqualTo("张三");
+        assertThat(contact.getCompany()).isEqualTo("示例, 公司");
+        assertThat(contact.getContactMethods())
+            .extracting(ContactMethod::getType, ContactMethod::getMethodValue)
+            .containsExactly(tuple(ContactMethodType.PHONE, "+86 1380013 8000"),
+                tuple(ContactMethodType.EMAIL, "zhang@example.com"));
+    }
+    
+    @Test
+    void quotedPrintableValuesAreDecoded() {
+        // vCard 2.1：UTF-8字节按=XX编码，行尾的"="表示软换行
+        Contact contact = ContactFileImporter.parseVCard("VERSION:2.1\n"
+            + "N;CHARSET=UTF-8;ENCODING=QUOTED-PRINTABLE:=E6=9D=8E;=E5=9B=9B\n"
+            + "NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=UTF-8:=E5=A4=87=\n"
+            + "=E6=B3=A8\n"
+            + "TEL;CELL:13800000004\n");
+        
+        assertThat(contact.getName()).isEqualTo("李四");
+        assertThat(contact.getNotes()).isEqualTo("备注");
+        assertThat(contact.getContactMethods()).extracting(ContactMethod::getMethodValue)
+            .containsExactly("13800000004");
+    }
+    
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+}
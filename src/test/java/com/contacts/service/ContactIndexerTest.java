@@ -0,0 +1,81 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactDocument;
+import com.contacts.entity.Contact;
+import com.contacts.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 全量构建与并发增量更新
+ * 仓库读出快照后、写入索引前模拟其他请求提交的修改和删除，构建完成后索引应反映最新状态
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class ContactIndexerTest {
+    
+    private final ContactRepository contactRepository = mock(ContactRepository.class);
+    
+    private final Map<Long, ContactDocument> documents = new HashMap<>();
+    
+    private final ContactIndexer indexer = new ContactIndexer();
+    
+    @BeforeEach
+    void setUp() {
+        ContactIndex index = new ContactIndex() {
+            @Override
+            public void put(ContactDocument document) {
+                documents.put(document.getId(), document);
+            }
+            
+            @Override
+            public void delete(Long id) {
+                documents.remove(id);
+            }
+        };
+        ReflectionTestUtils.setField(indexer, "contactRepository", contactRepository);
+        ReflectionTestUtils.setField(indexer, "indexes", List.of(index));
+    }
+    
+    @Test
+    void updatesDuringRebuildAreNotOverwrittenBySnapshot() {
+        when(contactRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 2L));
+        when(contactRepository.findIdsAfter(eq(2L), any())).thenReturn(List.of());
+        when(contactRepository.findAllWithMethodsByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Contact> snapshot = List.of(contact(1L, "旧姓名"), contact(2L, "已删除"));
+            // 快照读出之后提交的修改和删除，没有事务时立即交给索引器
+            indexer.index(contact(1L, "新姓名"));
+            indexer.remove(2L);
+            assertThat(indexer.isReady()).isFalse();
+            return snapshot;
+        });
+        
+        indexer.rebuild();
+        
+        assertThat(indexer.isReady()).isTrue();
+        assertThat(documents).containsOnlyKeys(1L);
+        assertThat(documents.get(1L).getName()).isEqualTo("新姓名");
+        
+        indexer.remove(1L);
+        assertThat(documents).isEmpty();
+    }
+    
+    private static Contact contact(Long id, String name) {
+        Contact contact = new Contact(name);
+        contact.setId(id);
+        return contact;
+    }
+}
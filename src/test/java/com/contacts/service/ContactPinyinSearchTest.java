@@ -0,0 +1,50 @@
+package com.contacts.service;
+
+import com.contacts.dto.ContactDocument;
+import com.contacts.dto.ContactSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多音字姓氏的拼音搜索和自动补全
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class ContactPinyinSearchTest {
+    
+    private static final List<ContactDocument> CONTACTS = List.of(
+        new ContactDocument(1L, "曾小明", null, false, List.of()),
+        new ContactDocument(2L, "单田芳", null, false, List.of()),
+        new ContactDocument(3L, "解缙", "解放公司", false, List.of()),
+        new ContactDocument(4L, "仇英", null, false, List.of()));
+    
+    @Test
+    void searchFindsSurnameReadingAndFirstReading() {
+        ContactSearchIndex index = new ContactSearchIndex();
+        CONTACTS.forEach(index::put);
+        
+        assertThat(index.search("zengxiao", 10)).containsExactly(1L);
+        assertThat(index.search("cengxiao", 10)).containsExactly(1L);
+        assertThat(index.search("shantian", 10)).containsExactly(2L);
+        assertThat(index.search("xiejin", 10)).containsExactly(3L);
+        assertThat(index.search("qiuying", 10)).containsExactly(4L);
+        assertThat(index.search("xiefang", 10)).isEmpty();
+    }
+    
+    @Test
+    void suggestFindsSurnameReadingAndInitials() {
+        ContactSuggestIndex index = new ContactSuggestIndex();
+        CONTACTS.forEach(index::put);
+        
+        assertThat(index.suggest("zeng", 10)).extracting(ContactSuggestion::getContactId).containsExactly(1L);
+        assertThat(index.suggest("stf", 10)).extracting(ContactSuggestion::getContactId).containsExactly(2L);
+        assertThat(index.suggest("xie", 10)).extracting(ContactSuggestion::getContactId).containsExactly(3L);
+        assertThat(index.suggest("qy", 10)).extracting(ContactSuggestion::getContactId).containsExactly(4L);
+        // 姓氏读音只用于姓名，公司仍按第一个读音
+        assertThat(index.suggest("jiefang", 10)).extracting(ContactSuggestion::getText).containsExactly("解放公司");
+    }
+}
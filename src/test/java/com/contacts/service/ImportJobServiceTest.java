@@ -0,0 +1,47 @@
+package com.contacts.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 提交导入任务
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class ImportJobServiceTest {
+    
+    @Test
+    void failedTransferDeletesTempFile() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "contacts.csv", "text/csv", new byte[0]) {
+            @Override
+            public void transferTo(Path dest) throws IOException {
+                throw new IOException("磁盘已满");
+            }
+        };
+        List<Path> before = tempFiles();
+        
+        assertThatThrownBy(() -> new ImportJobService().submitImport(file, ContactDeduplicator.Policy.NONE))
+            .isInstanceOf(IOException.class);
+        
+        assertThat(tempFiles()).containsExactlyInAnyOrderElementsOf(before);
+    }
+    
+    private static List<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(path -> path.getFileName().toString().startsWith("contacts-import-"))
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.contacts.util;
+
+import com.contacts.entity.ContactMethodType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 去重使用的规范化规则
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class NormalizeUtilsTest {
+    
+    @Test
+    void phoneDropsCountryCodeAndSeparators() {
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.PHONE, "+86 138-0013-8000")).isEqualTo("13800138000");
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.PHONE, "0086 13800138000")).isEqualTo("13800138000");
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.PHONE, "８６１３８００１３８０００")).isEqualTo("13800138000");
+        // 只有13位的86开头号码才视为带国家码，固定电话保持不变
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.PHONE, "0591-8888 8888")).isEqualTo("059188888888");
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.PHONE, "8612345")).isEqualTo("8612345");
+    }
+    
+    @Test
+    void onlyPhoneAndQqHaveDigits() {
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.QQ, " 10001 ")).isEqualTo("10001");
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.QQ, "0086123")).isEqualTo("0086123");
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.EMAIL, "a1@example.com")).isNull();
+        assertThat(NormalizeUtils.methodDigits(ContactMethodType.PHONE, "无")).isNull();
+    }
+    
+    @Test
+    void emailIsCaseFolded() {
+        assertThat(NormalizeUtils.lower("  Zhang.San@Example.COM ")).isEqualTo("zhang.san@example.com");
+        assertThat(NormalizeUtils.lower("   ")).isNull();
+    }
+    
+    @Test
+    void nameIgnoresWidthCaseAndWhitespace() {
+        assertThat(NormalizeUtils.name("张 三")).isEqualTo("张三");
+        assertThat(NormalizeUtils.name("Ｔｏｍ　Ｌｅｅ")).isEqualTo("tomlee");
+        assertThat(NormalizeUtils.name(" ")).isNull();
+    }
+}
@@ -0,0 +1,44 @@
+package com.contacts.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 拼音转换
+ * 
+ * @author Team
+ * @version 1.0
+ */
+class PinyinUtilsTest {
+    
+    @Test
+    void convertsTextToPinyinAndInitials() {
+        assertThat(PinyinUtils.toPinyin("孙煦航")).isEqualTo("sunxuhang");
+        assertThat(PinyinUtils.toInitials("孙煦航")).isEqualTo("sxh");
+        // 非汉字原样保留并转小写，空白去掉
+        assertThat(PinyinUtils.toPinyin("ABC 科技")).isEqualTo("abckeji");
+        assertThat(PinyinUtils.toInitials("ABC 科技")).isEqualTo("abckj");
+    }
+    
+    @Test
+    void polyphonicSurnamesUseSurnameReading() {
+        assertThat(PinyinUtils.toNamePinyin("曾小明")).isEqualTo("zengxiaoming");
+        assertThat(PinyinUtils.toNamePinyin("单田芳")).isEqualTo("shantianfang");
+        assertThat(PinyinUtils.toNamePinyin("解缙")).isEqualTo("xiejin");
+        assertThat(PinyinUtils.toNamePinyin(" 仇英")).isEqualTo("qiuying");
+        assertThat(PinyinUtils.toNameInitials("曾小明")).isEqualTo("zxm");
+        assertThat(PinyinUtils.toNameInitials("单田芳")).isEqualTo("stf");
+        assertThat(PinyinUtils.toNameInitials("解缙")).isEqualTo("xj");
+        assertThat(PinyinUtils.toNameInitials("仇英")).isEqualTo("qy");
+    }
+    
+    @Test
+    void surnameReadingOnlyAppliesToFirstCharacterOfNames() {
+        assertThat(PinyinUtils.toNamePinyin("李曾")).isEqualTo("liceng");
+        assertThat(PinyinUtils.toNamePinyin("孙煦航")).isEqualTo(PinyinUtils.toPinyin("孙煦航"));
+        // 公司名等普通文本不按姓氏读音
+        assertThat(PinyinUtils.toPinyin("解放")).isEqualTo("jiefang");
+        assertThat(PinyinUtils.toInitials("曾经")).isEqualTo("cj");
+    }
+}